@@ -20,6 +20,11 @@ import java.time.format.DateTimeFormatter;
 import java.util.Collections;
 import java.util.function.Predicate;
 
+/**
+ * The PLANNING_USER and the dummy task assignments are ChainElements, so the solver clones them with the rest of the
+ * solution. A working solution, e.g. in a problem fact change or in a move thread, never contains these static
+ * instances but their clones: use WorkingObjects to look them up.
+ */
 public class ModelConstants {
 
     /**
@@ -21,6 +21,11 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
+/**
+ * A Task is a problem fact that is shared, not cloned, by all the clones of a solution, including the ones used by
+ * the move threads when multi-threaded solving is enabled. It must not be modified once it's part of a solution, the
+ * UpdateTaskProblemFactChange replaces it instead.
+ */
 public class Task {
 
     private String id;
@@ -130,6 +135,22 @@ public class Task {
         this.rootProcessInstanceId = rootProcessInstanceId;
     }
 
+    public Set<String> getPotentialUsers() {
+        return potentialUsers;
+    }
+
+    public void setPotentialUsers(Set<String> potentialUsers) {
+        this.potentialUsers = potentialUsers;
+    }
+
+    public Set<String> getPotentialGroups() {
+        return potentialGroups;
+    }
+
+    public void setPotentialGroups(Set<String> potentialGroups) {
+        this.potentialGroups = potentialGroups;
+    }
+
     public void setRootProcessId(String rootProcessId) {
         this.rootProcessId = rootProcessId;
     }
@@ -211,6 +232,16 @@ public class Task {
             return this;
         }
 
+        public Builder potentialUsers(Set<String> potentialUsers) {
+            task.setPotentialUsers(potentialUsers);
+            return this;
+        }
+
+        public Builder potentialGroups(Set<String> potentialGroups) {
+            task.setPotentialGroups(potentialGroups);
+            return this;
+        }
+
         public Builder started(ZonedDateTime started) {
             task.setStarted(started);
             return this;
@@ -18,12 +18,14 @@ package org.example.pfc.domain;
 import static org.example.pfc.domain.TaskAssignment.TASK_ASSIGNMENT_RANGE;
 import static org.example.pfc.domain.TaskAssignment.USER_RANGE;
 
+import java.util.Collections;
 import java.util.List;
 
 import org.optaplanner.core.api.domain.solution.PlanningEntityCollectionProperty;
 import org.optaplanner.core.api.domain.solution.PlanningScore;
 import org.optaplanner.core.api.domain.solution.PlanningSolution;
 import org.optaplanner.core.api.domain.solution.ProblemFactCollectionProperty;
+import org.optaplanner.core.api.domain.solution.ProblemFactProperty;
 import org.optaplanner.core.api.domain.valuerange.ValueRangeProvider;
 import org.optaplanner.core.api.score.buildin.bendablelong.BendableLongScore;
 
@@ -41,6 +43,9 @@ public class TaskAssigningSolution {
     @ValueRangeProvider(id = TASK_ASSIGNMENT_RANGE)
     private List<TaskAssignment> taskAssignmentList;
 
+    // exposed to the score director by the getter, see getUserGroupIndex().
+    private UserGroupIndex userGroupIndex;
+
     @PlanningScore(bendableHardLevelsSize = HARD_LEVELS_SIZE, bendableSoftLevelsSize = SOFT_LEVELS_SIZE)
     private BendableLongScore score;
 
@@ -51,6 +56,7 @@ public class TaskAssigningSolution {
     public TaskAssigningSolution(List<User> userList, List<TaskAssignment> taskAssignmentList) {
         this.userList = userList;
         this.taskAssignmentList = taskAssignmentList;
+        this.userGroupIndex = UserGroupIndex.build(userList);
     }
 
     public List<User> getUserList() {
@@ -69,6 +75,40 @@ public class TaskAssigningSolution {
         this.taskAssignmentList = taskAssignmentList;
     }
 
+    /**
+     * The "Required potential owner" constraint joins the index, so a missing index would silently disable it. The
+     * index is therefore built on first access when the solution was not created by the constructor and no index was
+     * set, e.g. when it was unmarshalled.
+     *
+     * @return the group membership index of the userList, never null.
+     */
+    @ProblemFactProperty
+    public UserGroupIndex getUserGroupIndex() {
+        if (userGroupIndex == null) {
+            userGroupIndex = UserGroupIndex.build(userList != null ? userList : Collections.emptyList());
+        }
+        return userGroupIndex;
+    }
+
+    public void setUserGroupIndex(UserGroupIndex userGroupIndex) {
+        this.userGroupIndex = userGroupIndex;
+    }
+
+    /**
+     * @return a new solution with the same lists, UserGroupIndex and score, no entity is copied. Solving or scoring
+     *         the copy only writes the score and, if this solution has no index yet, the index of the copy, so this
+     *         solution can be shared with other readers meanwhile. The entities themselves must not be modified.
+     */
+    public TaskAssigningSolution shallowCopy() {
+        TaskAssigningSolution copy = new TaskAssigningSolution();
+        copy.userList = userList;
+        copy.taskAssignmentList = taskAssignmentList;
+        // the field, not the getter, so a missing index is built on the copy rather than on this solution.
+        copy.userGroupIndex = userGroupIndex;
+        copy.score = score;
+        return copy;
+    }
+
     public BendableLongScore getScore() {
         return score;
     }
@@ -18,8 +18,18 @@ package org.example.pfc.domain;
 import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * Users are anchors of the chains and, as instances of the ChainElement planning entity class, they are cloned
+ * together with the solution, e.g. for every move thread. The attributes map is not deep cloned and is shared by all
+ * the clones, so it must never be modified in place: replace it with {@link #setAttributes(Map)} instead.
+ */
 public class User extends ChainElement {
 
+    /**
+     * Attribute with the groups of the user, either a collection of group ids or a comma separated string.
+     */
+    public static final String GROUPS_ATTRIBUTE = "groups";
+
     private boolean enabled;
     private Map<String, Object> attributes = new HashMap<>();
 
@@ -47,6 +57,14 @@ public class User extends ChainElement {
         return false;
     }
 
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
     public Map<String, Object> getAttributes() {
         return attributes;
     }
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.example.pfc.domain;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Precomputed group membership of the users, built from the {@link User#GROUPS_ATTRIBUTE} of each user. Users and
+ * groups are numbered by ordinals: each user ordinal maps to the bitset of its groups, and each group ordinal maps to
+ * the bitset of its members, so a group eligibility check is an array access plus a bitset intersection instead of
+ * a look up and cast of the untyped user attributes.
+ * <p>
+ * All the mappings are kept inside the index, the users and tasks it is built from or queried with are never
+ * modified, so several indexes over the same User instances don't interfere. A user is looked up by id, since the
+ * solution clones carry their own User instances. The potential groups of a {@link Task} are resolved once per
+ * distinct set of potential groups, which is bounded by the group combinations in use rather than by the number of
+ * tasks, so replaced and removed tasks leave nothing behind.
+ * <p>
+ * An index is immutable, apart from that thread-safe cache, and is shared as a problem fact by all the clones of a
+ * solution. It's only rebuilt when a user changes, see UserPropertyChangeProblemFactChange.
+ */
+public class UserGroupIndex {
+
+    private static final BitSet NO_GROUPS = new BitSet();
+
+    private final Map<String, Integer> userOrdinalById;
+    private final Map<String, Integer> groupOrdinalById;
+    private final BitSet[] groupsByUserOrdinal;
+    private final BitSet[] usersByGroupOrdinal;
+    // shared by the move threads, so concurrent look ups may resolve the same groups twice, with the same result.
+    private final Map<Set<String>, BitSet> resolvedGroupsByPotentialGroups = new ConcurrentHashMap<>();
+
+    private UserGroupIndex(Map<String, Integer> userOrdinalById, Map<String, Integer> groupOrdinalById,
+            BitSet[] groupsByUserOrdinal, BitSet[] usersByGroupOrdinal) {
+        this.userOrdinalById = userOrdinalById;
+        this.groupOrdinalById = groupOrdinalById;
+        this.groupsByUserOrdinal = groupsByUserOrdinal;
+        this.usersByGroupOrdinal = usersByGroupOrdinal;
+    }
+
+    /**
+     * Builds the index, the ordinal of each user is its position in the userList. The users are not modified.
+     */
+    public static UserGroupIndex build(List<User> userList) {
+        Map<String, Integer> userOrdinalById = new HashMap<>(userList.size() * 2);
+        Map<String, Integer> groupOrdinalById = new HashMap<>();
+        BitSet[] groupsByUserOrdinal = new BitSet[userList.size()];
+        for (int userOrdinal = 0; userOrdinal < userList.size(); userOrdinal++) {
+            User user = userList.get(userOrdinal);
+            userOrdinalById.put(user.getId(), userOrdinal);
+            BitSet userGroups = new BitSet();
+            for (String groupId : extractGroups(user)) {
+                Integer groupOrdinal = groupOrdinalById.computeIfAbsent(groupId, id -> groupOrdinalById.size());
+                userGroups.set(groupOrdinal);
+            }
+            groupsByUserOrdinal[userOrdinal] = userGroups;
+        }
+        BitSet[] usersByGroupOrdinal = new BitSet[groupOrdinalById.size()];
+        for (int groupOrdinal = 0; groupOrdinal < usersByGroupOrdinal.length; groupOrdinal++) {
+            usersByGroupOrdinal[groupOrdinal] = new BitSet(userList.size());
+        }
+        for (int userOrdinal = 0; userOrdinal < groupsByUserOrdinal.length; userOrdinal++) {
+            BitSet userGroups = groupsByUserOrdinal[userOrdinal];
+            for (int groupOrdinal = userGroups.nextSetBit(0); groupOrdinal >= 0; groupOrdinal = userGroups.nextSetBit(groupOrdinal + 1)) {
+                usersByGroupOrdinal[groupOrdinal].set(userOrdinal);
+            }
+        }
+        return new UserGroupIndex(userOrdinalById, groupOrdinalById, groupsByUserOrdinal, usersByGroupOrdinal);
+    }
+
+    /**
+     * @return the groups of the user, from the {@link User#GROUPS_ATTRIBUTE}.
+     */
+    public static Set<String> extractGroups(User user) {
+        Object groups = user.getAttributes().get(User.GROUPS_ATTRIBUTE);
+        if (groups == null) {
+            return Collections.emptySet();
+        }
+        Set<String> result = new LinkedHashSet<>();
+        if (groups instanceof Collection) {
+            for (Object group : (Collection<?>) groups) {
+                result.add(group.toString());
+            }
+        } else {
+            for (String group : groups.toString().split(",")) {
+                if (!group.trim().isEmpty()) {
+                    result.add(group.trim());
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the ordinal of the user, or -1 if the user is not part of the index.
+     */
+    public int getUserOrdinal(String userId) {
+        Integer userOrdinal = userOrdinalById.get(userId);
+        return userOrdinal != null ? userOrdinal : -1;
+    }
+
+    /**
+     * @return the ordinal of the group, or -1 if no user is a member of that group.
+     */
+    public int getGroupOrdinal(String groupId) {
+        Integer groupOrdinal = groupOrdinalById.get(groupId);
+        return groupOrdinal != null ? groupOrdinal : -1;
+    }
+
+    public int getUserCount() {
+        return groupsByUserOrdinal.length;
+    }
+
+    public int getGroupCount() {
+        return usersByGroupOrdinal.length;
+    }
+
+    /**
+     * @return the groups of the user as group ordinals. Must not be modified.
+     */
+    public BitSet getGroups(int userOrdinal) {
+        return groupsByUserOrdinal[userOrdinal];
+    }
+
+    /**
+     * @return the members of the group as user ordinals. Must not be modified.
+     */
+    public BitSet getMembers(int groupOrdinal) {
+        return usersByGroupOrdinal[groupOrdinal];
+    }
+
+    /**
+     * @return the potential groups of the task as group ordinals, groups without members are left out. Must not be
+     *         modified.
+     */
+    public BitSet getPotentialGroups(Task task) {
+        Set<String> potentialGroups = task.getPotentialGroups();
+        if (potentialGroups == null || potentialGroups.isEmpty()) {
+            return NO_GROUPS;
+        }
+        BitSet groups = resolvedGroupsByPotentialGroups.get(potentialGroups);
+        if (groups == null) {
+            groups = new BitSet(usersByGroupOrdinal.length);
+            for (String groupId : potentialGroups) {
+                int groupOrdinal = getGroupOrdinal(groupId);
+                if (groupOrdinal >= 0) {
+                    groups.set(groupOrdinal);
+                }
+            }
+            // keyed by a copy, a later change of the task's set must not corrupt the cache.
+            resolvedGroupsByPotentialGroups.putIfAbsent(Set.copyOf(potentialGroups), groups);
+        }
+        return groups;
+    }
+
+    /**
+     * @return true if the user is a member of at least one of the potential groups of the task.
+     */
+    public boolean isMemberOfPotentialGroups(User user, Task task) {
+        int userOrdinal = getUserOrdinal(user.getId());
+        return userOrdinal >= 0 && groupsByUserOrdinal[userOrdinal].intersects(getPotentialGroups(task));
+    }
+
+    /**
+     * @return true if the user is one of the potential users of the task, or a member of one of its potential groups.
+     */
+    public boolean isPotentialOwner(User user, Task task) {
+        Set<String> potentialUsers = task.getPotentialUsers();
+        return (potentialUsers != null && potentialUsers.contains(user.getId())) || isMemberOfPotentialGroups(user, task);
+    }
+}
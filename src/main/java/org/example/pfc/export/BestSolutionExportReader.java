@@ -0,0 +1,120 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.example.pfc.export;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Rebuilds the assignment state of the best solutions exported by a {@link BestSolutionExporter}.
+ */
+public class BestSolutionExportReader {
+
+    private final Path directory;
+
+    public BestSolutionExportReader(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @return the state of the last exported best solution, or null if nothing was exported.
+     */
+    public ExportedState readLatest() {
+        return readUntil(record -> true);
+    }
+
+    /**
+     * @return the state of the last exported best solution with a sequence lower than or equal to the given one, or
+     *         null if there is no such solution.
+     */
+    public ExportedState readAtSequence(long sequence) {
+        return readUntil(record -> record.getSequence() <= sequence);
+    }
+
+    /**
+     * @return the state of the last best solution exported at or before the given instant, or null if there is no
+     *         such solution.
+     */
+    public ExportedState readAt(Instant instant) {
+        return readUntil(record -> record.getTimestampMillis() <= instant.toEpochMilli());
+    }
+
+    /**
+     * Applies the records in order while they match the given predicate. The records are ordered by sequence and by
+     * timestamp, so the first record that doesn't match ends the reading.
+     */
+    private ExportedState readUntil(Predicate<ExportRecord> predicate) {
+        Map<String, ExportedAssignment> assignmentsByTaskId = new HashMap<>();
+        ExportRecord lastRecord = null;
+        for (Path segmentFile : listSegments(directory)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(segmentFile)))) {
+                ExportRecord record;
+                while ((record = ExportRecord.readFrom(in)) != null) {
+                    if (!predicate.test(record)) {
+                        return toState(lastRecord, assignmentsByTaskId);
+                    }
+                    if (record.getType() == ExportRecord.Type.FULL) {
+                        assignmentsByTaskId.clear();
+                    }
+                    record.getChangedAssignments().forEach(assignment -> assignmentsByTaskId.put(assignment.getTaskId(), assignment));
+                    record.getRemovedTaskIds().forEach(assignmentsByTaskId::remove);
+                    lastRecord = record;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(String.format("Reading the segment: %s failed.", segmentFile), e);
+            }
+        }
+        return toState(lastRecord, assignmentsByTaskId);
+    }
+
+    private static ExportedState toState(ExportRecord record, Map<String, ExportedAssignment> assignmentsByTaskId) {
+        if (record == null) {
+            return null;
+        }
+        return new ExportedState(record.getSequence(), Instant.ofEpochMilli(record.getTimestampMillis()),
+                record.getScore(), new HashMap<>(assignmentsByTaskId));
+    }
+
+    /**
+     * @return the segment files of the given directory, in the order they were written.
+     */
+    static List<Path> listSegments(Path directory) {
+        if (!Files.isDirectory(directory)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> {
+                String fileName = file.getFileName().toString();
+                return fileName.startsWith(BestSolutionExporter.SEGMENT_PREFIX)
+                        && fileName.endsWith(BestSolutionExporter.SEGMENT_SUFFIX);
+            }).sorted().collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(String.format("Listing the segments of: %s failed.", directory), e);
+        }
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.example.pfc.export;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.example.pfc.domain.TaskAssigningSolution;
+import org.example.pfc.domain.TaskAssignment;
+import org.optaplanner.core.api.solver.event.BestSolutionChangedEvent;
+import org.optaplanner.core.api.solver.event.SolverEventListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Exports every best solution to a rolling, append-only set of segment files in the background, see
+ * {@link BestSolutionExportReader} to read them back.
+ * <p>
+ * The listener only puts the best solution in a bounded buffer, which takes constant time on the solver thread. That
+ * works because the solver never modifies a best solution once it has been published. When the buffer is full, the
+ * oldest pending solution is dropped. No assignment state is lost that way: each record is a delta from the previously
+ * written record, so the next record also contains the changes of the dropped solution.
+ * <p>
+ * A writer thread converts each solution to a record with only the task assignments that changed since the previous
+ * record, see {@link ExportRecord}. A new segment is started when the current one exceeds the max segment size, and
+ * the first record of each segment is a FULL record, so a segment can be read without the previous ones.
+ * <p>
+ * Register the exporter with {@code solver.addEventListener(exporter)}.
+ */
+public class BestSolutionExporter implements SolverEventListener<TaskAssigningSolution>, AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BestSolutionExporter.class);
+
+    static final String SEGMENT_PREFIX = "best-solutions-";
+    static final String SEGMENT_SUFFIX = ".log";
+
+    private static final long POLL_MILLIS = 100;
+
+    private final Path directory;
+    private final long maxSegmentBytes;
+    private final BlockingQueue<PendingSolution> buffer;
+    private final Thread writerThread;
+    private volatile boolean closed;
+
+    private final AtomicLong sequence;
+    private final AtomicLong droppedSolutions = new AtomicLong();
+    private final AtomicLong writtenRecords = new AtomicLong();
+
+    // accessed by the writer thread only.
+    private int segmentIndex;
+    private DataOutputStream segment;
+    private long segmentBytes;
+    private Map<String, ExportedAssignment> lastWrittenState = new HashMap<>();
+
+    public BestSolutionExporter(Path directory, int bufferCapacity, long maxSegmentBytes) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.maxSegmentBytes = maxSegmentBytes;
+        this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+        this.segmentIndex = BestSolutionExportReader.listSegments(directory).size();
+        // continues the sequence of a previous export to the same directory.
+        ExportedState latest = new BestSolutionExportReader(directory).readLatest();
+        this.sequence = new AtomicLong(latest != null ? latest.getSequence() : 0);
+        this.writerThread = new Thread(this::writeLoop, "BestSolutionExporter");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @Override
+    public void bestSolutionChanged(BestSolutionChangedEvent<TaskAssigningSolution> event) {
+        export(event.getNewBestSolution());
+    }
+
+    void export(TaskAssigningSolution bestSolution) {
+        if (closed) {
+            return;
+        }
+        PendingSolution pendingSolution = new PendingSolution(sequence.incrementAndGet(), System.currentTimeMillis(),
+                bestSolution);
+        // the solver thread is the only producer, so after removing the oldest solution there is room for this one.
+        while (!buffer.offer(pendingSolution)) {
+            if (buffer.poll() != null) {
+                droppedSolutions.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * @return the number of best solutions that were dropped because the buffer was full.
+     */
+    public long getDroppedSolutions() {
+        return droppedSolutions.get();
+    }
+
+    public long getWrittenRecords() {
+        return writtenRecords.get();
+    }
+
+    /**
+     * Writes the pending best solutions and closes the current segment.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        closed = true;
+        writerThread.join();
+    }
+
+    private void writeLoop() {
+        try {
+            while (!closed || !buffer.isEmpty()) {
+                PendingSolution pendingSolution = buffer.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (pendingSolution != null) {
+                    write(pendingSolution);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            LOGGER.error("Exporting the best solutions to {} failed, the export is stopped.", directory, e);
+            closed = true;
+        } finally {
+            closeSegment();
+        }
+    }
+
+    private void write(PendingSolution pendingSolution) throws IOException {
+        Map<String, ExportedAssignment> state = new HashMap<>();
+        for (TaskAssignment taskAssignment : pendingSolution.solution.getTaskAssignmentList()) {
+            state.put(taskAssignment.getId(), ExportedAssignment.of(taskAssignment));
+        }
+        String score = pendingSolution.solution.getScore() != null ? pendingSolution.solution.getScore().toString() : "";
+
+        ExportRecord record;
+        if (segment == null || segmentBytes >= maxSegmentBytes) {
+            rollSegment();
+            record = new ExportRecord(ExportRecord.Type.FULL, pendingSolution.sequence, pendingSolution.timestampMillis,
+                    score, new ArrayList<>(state.values()), new ArrayList<>());
+        } else {
+            List<ExportedAssignment> changedAssignments = new ArrayList<>();
+            for (ExportedAssignment assignment : state.values()) {
+                if (!assignment.equals(lastWrittenState.get(assignment.getTaskId()))) {
+                    changedAssignments.add(assignment);
+                }
+            }
+            List<String> removedTaskIds = new ArrayList<>();
+            for (String taskId : lastWrittenState.keySet()) {
+                if (!state.containsKey(taskId)) {
+                    removedTaskIds.add(taskId);
+                }
+            }
+            record = new ExportRecord(ExportRecord.Type.DELTA, pendingSolution.sequence, pendingSolution.timestampMillis,
+                    score, changedAssignments, removedTaskIds);
+        }
+        segmentBytes += record.writeTo(segment);
+        // flushed per record, so a reader never misses a record that is older than the current best solution.
+        segment.flush();
+        lastWrittenState = state;
+        writtenRecords.incrementAndGet();
+    }
+
+    private void rollSegment() throws IOException {
+        closeSegment();
+        Path segmentFile = directory.resolve(segmentFileName(segmentIndex++));
+        segment = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(segmentFile.toFile(), true)));
+        segmentBytes = Files.size(segmentFile);
+    }
+
+    private void closeSegment() {
+        if (segment != null) {
+            try {
+                segment.close();
+            } catch (IOException e) {
+                LOGGER.warn("Closing the current segment in {} failed.", directory, e);
+            }
+            segment = null;
+        }
+    }
+
+    static String segmentFileName(int segmentIndex) {
+        return String.format("%s%06d%s", SEGMENT_PREFIX, segmentIndex, SEGMENT_SUFFIX);
+    }
+
+    private static class PendingSolution {
+
+        private final long sequence;
+        private final long timestampMillis;
+        private final TaskAssigningSolution solution;
+
+        private PendingSolution(long sequence, long timestampMillis, TaskAssigningSolution solution) {
+            this.sequence = sequence;
+            this.timestampMillis = timestampMillis;
+            this.solution = solution;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.example.pfc.export;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * A record of the export file. A FULL record contains all the assignments of a best solution, a DELTA record only the
+ * assignments that changed since the previous record and the ids of the removed tasks.
+ * <p>
+ * On disk a record is its length followed by its deflate compressed content:
+ * <pre>
+ * int length
+ * byte type, long sequence, long timestampMillis, UTF score, int changedCount, changedCount x assignment,
+ * int removedCount, removedCount x UTF taskId
+ * </pre>
+ * where an assignment is UTF taskId, nullable UTF userId, nullable UTF previousElementId, boolean pinned, nullable int
+ * startTimeInMinutes and nullable int endTimeInMinutes, a nullable value being prefixed by a presence flag.
+ */
+final class ExportRecord {
+
+    enum Type {
+        FULL,
+        DELTA
+    }
+
+    private final Type type;
+    private final long sequence;
+    private final long timestampMillis;
+    private final String score;
+    private final List<ExportedAssignment> changedAssignments;
+    private final List<String> removedTaskIds;
+
+    ExportRecord(Type type, long sequence, long timestampMillis, String score, List<ExportedAssignment> changedAssignments,
+            List<String> removedTaskIds) {
+        this.type = type;
+        this.sequence = sequence;
+        this.timestampMillis = timestampMillis;
+        this.score = score;
+        this.changedAssignments = changedAssignments;
+        this.removedTaskIds = removedTaskIds;
+    }
+
+    Type getType() {
+        return type;
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+
+    long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    String getScore() {
+        return score;
+    }
+
+    List<ExportedAssignment> getChangedAssignments() {
+        return changedAssignments;
+    }
+
+    List<String> getRemovedTaskIds() {
+        return removedTaskIds;
+    }
+
+    /**
+     * @return the number of bytes written.
+     */
+    int writeTo(DataOutputStream out) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream content = new DataOutputStream(new DeflaterOutputStream(bytes))) {
+            content.writeByte(type.ordinal());
+            content.writeLong(sequence);
+            content.writeLong(timestampMillis);
+            content.writeUTF(score);
+            content.writeInt(changedAssignments.size());
+            for (ExportedAssignment assignment : changedAssignments) {
+                content.writeUTF(assignment.getTaskId());
+                writeNullableString(content, assignment.getUserId());
+                writeNullableString(content, assignment.getPreviousElementId());
+                content.writeBoolean(assignment.isPinned());
+                writeNullableInt(content, assignment.getStartTimeInMinutes());
+                writeNullableInt(content, assignment.getEndTimeInMinutes());
+            }
+            content.writeInt(removedTaskIds.size());
+            for (String taskId : removedTaskIds) {
+                content.writeUTF(taskId);
+            }
+        }
+        out.writeInt(bytes.size());
+        bytes.writeTo(out);
+        return Integer.BYTES + bytes.size();
+    }
+
+    /**
+     * @return the next record, or null at the end of the stream. A record that was only partially written, e.g. when
+     *         the process was killed while writing, is treated as the end of the stream.
+     */
+    static ExportRecord readFrom(DataInputStream in) throws IOException {
+        byte[] bytes;
+        try {
+            bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+        } catch (EOFException e) {
+            return null;
+        }
+        try (DataInputStream content = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(bytes)))) {
+            Type type = Type.values()[content.readByte()];
+            long sequence = content.readLong();
+            long timestampMillis = content.readLong();
+            String score = content.readUTF();
+            int changedCount = content.readInt();
+            List<ExportedAssignment> changedAssignments = new ArrayList<>(changedCount);
+            for (int i = 0; i < changedCount; i++) {
+                changedAssignments.add(new ExportedAssignment(content.readUTF(),
+                        readNullableString(content),
+                        readNullableString(content),
+                        content.readBoolean(),
+                        readNullableInt(content),
+                        readNullableInt(content)));
+            }
+            int removedCount = content.readInt();
+            List<String> removedTaskIds = new ArrayList<>(removedCount);
+            for (int i = 0; i < removedCount; i++) {
+                removedTaskIds.add(content.readUTF());
+            }
+            return new ExportRecord(type, sequence, timestampMillis, score, changedAssignments, removedTaskIds);
+        }
+    }
+
+    private static void writeNullableString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullableString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeNullableInt(DataOutputStream out, Integer value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeInt(value);
+        }
+    }
+
+    private static Integer readNullableInt(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readInt() : null;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.example.pfc.export;
+
+import java.util.Objects;
+
+import org.example.pfc.domain.TaskAssignment;
+
+/**
+ * The exported state of a TaskAssignment. The user and the previous element are null for an unassigned task.
+ */
+public final class ExportedAssignment {
+
+    private final String taskId;
+    private final String userId;
+    private final String previousElementId;
+    private final boolean pinned;
+    private final Integer startTimeInMinutes;
+    private final Integer endTimeInMinutes;
+
+    public ExportedAssignment(String taskId, String userId, String previousElementId, boolean pinned,
+            Integer startTimeInMinutes, Integer endTimeInMinutes) {
+        this.taskId = taskId;
+        this.userId = userId;
+        this.previousElementId = previousElementId;
+        this.pinned = pinned;
+        this.startTimeInMinutes = startTimeInMinutes;
+        this.endTimeInMinutes = endTimeInMinutes;
+    }
+
+    public static ExportedAssignment of(TaskAssignment taskAssignment) {
+        return new ExportedAssignment(taskAssignment.getId(),
+                taskAssignment.getUser() != null ? taskAssignment.getUser().getId() : null,
+                taskAssignment.getPreviousElement() != null ? taskAssignment.getPreviousElement().getId() : null,
+                taskAssignment.isPinned(),
+                taskAssignment.getStartTimeInMinutes(),
+                taskAssignment.getEndTimeInMinutes());
+    }
+
+    public String getTaskId() {
+        return taskId;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public String getPreviousElementId() {
+        return previousElementId;
+    }
+
+    public boolean isPinned() {
+        return pinned;
+    }
+
+    public Integer getStartTimeInMinutes() {
+        return startTimeInMinutes;
+    }
+
+    public Integer getEndTimeInMinutes() {
+        return endTimeInMinutes;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ExportedAssignment)) {
+            return false;
+        }
+        ExportedAssignment that = (ExportedAssignment) o;
+        return pinned == that.pinned &&
+                taskId.equals(that.taskId) &&
+                Objects.equals(userId, that.userId) &&
+                Objects.equals(previousElementId, that.previousElementId) &&
+                Objects.equals(startTimeInMinutes, that.startTimeInMinutes) &&
+                Objects.equals(endTimeInMinutes, that.endTimeInMinutes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(taskId, userId, previousElementId, pinned, startTimeInMinutes, endTimeInMinutes);
+    }
+
+    @Override
+    public String toString() {
+        return "ExportedAssignment{" +
+                "taskId='" + taskId + '\'' +
+                ", userId='" + userId + '\'' +
+                ", previousElementId='" + previousElementId + '\'' +
+                ", pinned=" + pinned +
+                ", startTimeInMinutes=" + startTimeInMinutes +
+                ", endTimeInMinutes=" + endTimeInMinutes +
+                '}';
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.example.pfc.export;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * The assignment state of an exported best solution, as rebuilt by the {@link BestSolutionExportReader}.
+ */
+public final class ExportedState {
+
+    private final long sequence;
+    private final Instant timestamp;
+    private final String score;
+    private final Map<String, ExportedAssignment> assignmentsByTaskId;
+
+    ExportedState(long sequence, Instant timestamp, String score, Map<String, ExportedAssignment> assignmentsByTaskId) {
+        this.sequence = sequence;
+        this.timestamp = timestamp;
+        this.score = score;
+        this.assignmentsByTaskId = Collections.unmodifiableMap(assignmentsByTaskId);
+    }
+
+    /**
+     * @return the sequence number of the exported best solution, sequence numbers of dropped solutions are skipped.
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    public String getScore() {
+        return score;
+    }
+
+    public Map<String, ExportedAssignment> getAssignmentsByTaskId() {
+        return assignmentsByTaskId;
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.example.pfc.shard;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+
+import org.example.pfc.domain.TaskAssigningSolution;
+import org.optaplanner.core.api.solver.ProblemFactChange;
+import org.optaplanner.core.api.solver.Solver;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * PlannerNode that runs its solver on a thread of the given executor, in the same JVM as the coordinator. The solver
+ * factory must be configured in daemon mode, otherwise the solver stops when its phases end and the following changes
+ * are never processed. A failure of the solver is logged as soon as it happens, and the following
+ * {@link #addProblemFactChanges(List)} calls throw it instead of queuing changes that no solver will process.
+ */
+public class InProcessPlannerNode implements PlannerNode {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(InProcessPlannerNode.class);
+
+    private final String id;
+    private final SolverFactory<TaskAssigningSolution> solverFactory;
+    private final ExecutorService executorService;
+
+    private Solver<TaskAssigningSolution> solver;
+    private CompletableFuture<TaskAssigningSolution> solving;
+    private volatile TaskAssigningSolution bestSolution;
+    private volatile Throwable failure;
+
+    public InProcessPlannerNode(String id, SolverFactory<TaskAssigningSolution> solverFactory, ExecutorService executorService) {
+        this.id = id;
+        this.solverFactory = solverFactory;
+        this.executorService = executorService;
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public synchronized void start(TaskAssigningSolution solution) {
+        if (solver != null) {
+            throw new IllegalStateException(String.format("The planner node: %s was already started", id));
+        }
+        bestSolution = solution;
+        solver = solverFactory.buildSolver();
+        solver.addEventListener(event -> bestSolution = event.getNewBestSolution());
+        solving = CompletableFuture.supplyAsync(() -> solver.solve(solution), executorService);
+        solving.whenComplete((result, throwable) -> {
+            if (throwable != null && !(throwable instanceof CancellationException)) {
+                failure = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+                LOGGER.error(String.format("The solver of the planner node: %s failed, the node stopped planning.", id), failure);
+            }
+        });
+    }
+
+    @Override
+    public void addProblemFactChanges(List<ProblemFactChange<TaskAssigningSolution>> problemFactChanges) {
+        requireStarted().addProblemFactChanges(problemFactChanges);
+    }
+
+    /**
+     * @return the exception that stopped the solver of this node, or null if the solver didn't fail.
+     */
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    @Override
+    public TaskAssigningSolution getBestSolution() {
+        return bestSolution;
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (solver != null) {
+            solver.terminateEarly();
+            solving.cancel(false);
+        }
+    }
+
+    private synchronized Solver<TaskAssigningSolution> requireStarted() {
+        if (solver == null) {
+            throw new IllegalStateException(String.format("The planner node: %s was not started", id));
+        }
+        if (failure != null) {
+            throw new IllegalStateException(String.format("The solver of the planner node: %s failed", id), failure);
+        }
+        return solver;
+    }
+}
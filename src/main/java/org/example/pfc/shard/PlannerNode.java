@@ -0,0 +1,48 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.example.pfc.shard;
+
+import java.util.List;
+
+import org.example.pfc.domain.TaskAssigningSolution;
+import org.optaplanner.core.api.solver.ProblemFactChange;
+
+/**
+ * A planner node solves one shard of the users and their tasks. The ShardedPlanningCoordinator only talks to the
+ * nodes through this interface, so a node may run in the same JVM or remotely.
+ */
+public interface PlannerNode {
+
+    String getId();
+
+    /**
+     * Starts solving the given shard solution. Solving continues until {@link #stop()} is called.
+     */
+    void start(TaskAssigningSolution solution);
+
+    /**
+     * Submits the given changes to the solver of this node. The changes are applied in the given order.
+     */
+    void addProblemFactChanges(List<ProblemFactChange<TaskAssigningSolution>> problemFactChanges);
+
+    /**
+     * @return the last best solution of this node, or the solution given to {@link #start(TaskAssigningSolution)} if
+     *         no best solution was found yet. The returned solution must not be modified.
+     */
+    TaskAssigningSolution getBestSolution();
+
+    void stop();
+}
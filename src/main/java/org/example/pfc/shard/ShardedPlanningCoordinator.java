@@ -0,0 +1,465 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.example.pfc.shard;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.example.pfc.domain.ChainElement;
+import org.example.pfc.domain.ModelConstants;
+import org.example.pfc.domain.Task;
+import org.example.pfc.domain.TaskAssigningSolution;
+import org.example.pfc.domain.TaskAssignment;
+import org.example.pfc.domain.User;
+import org.example.pfc.domain.UserGroupIndex;
+import org.example.pfc.solver.AddTaskProblemFactChange;
+import org.example.pfc.solver.AddUserProblemFactChange;
+import org.example.pfc.solver.PinTasksProblemFactChange;
+import org.example.pfc.solver.RemoveTaskProblemFactChange;
+import org.example.pfc.solver.UpdateTaskProblemFactChange;
+import org.example.pfc.solver.UserPropertyChangeProblemFactChange;
+import org.optaplanner.core.api.score.buildin.bendablelong.BendableLongScore;
+import org.optaplanner.core.api.solver.ProblemFactChange;
+
+/**
+ * Splits a TaskAssigningSolution into shards that are solved by different planner nodes.
+ * <ul>
+ * <li>The users are distributed round-robin over the shards, and every shard gets its own PLANNING_USER.</li>
+ * <li>A task goes to the shard with the fewest tasks among the shards that have at least one of its potential owners,
+ * or to the shard with the fewest tasks if no user is eligible. Pinned tasks stay with their user, in chain order,
+ * wherever they are in the chain. The other tasks start unassigned in their shard.</li>
+ * <li>Problem fact changes are routed to the shard that owns the task or the user.</li>
+ * <li>{@link #rebalance()} moves unpinned tasks that are eligible in more than one shard from the busiest shard to
+ * the least busy one, and tasks that ended on the PLANNING_USER to a shard where they are eligible.</li>
+ * <li>The coordinator keeps the latest Task and duration of every task and the tasks that were pinned, so a moved
+ * task is re-added with its latest data even when the best solution of its shard predates the latest changes. A task
+ * stays in its shard once it was asked to be pinned.</li>
+ * <li>{@link #getGlobalView()} merges the best solutions of all the shards.</li>
+ * </ul>
+ */
+public class ShardedPlanningCoordinator {
+
+    /**
+     * A shard isn't rebalanced unless its average workload per user exceeds the one of the least busy shard by this
+     * many minutes.
+     */
+    private static final double REBALANCE_WORKLOAD_THRESHOLD = 1.0;
+
+    private final List<PlannerNode> nodes;
+    private final int maxMovesPerRebalance;
+    private final ScheduledExecutorService rebalanceScheduler;
+
+    private List<User> userList;
+    private UserGroupIndex userGroupIndex;
+    private int[] shardByUserOrdinal;
+    private final Map<String, Integer> shardByTaskId = new HashMap<>();
+    // unassigned copies with the latest Task and duration of every task.
+    private final Map<String, TaskAssignment> latestTaskAssignmentById = new HashMap<>();
+    private final Set<String> pinnedTaskIds = new HashSet<>();
+    private int[] taskCountByShard;
+    private int[] userCountByShard;
+
+    public ShardedPlanningCoordinator(List<PlannerNode> nodes, int maxMovesPerRebalance) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("At least one planner node is required.");
+        }
+        this.nodes = nodes;
+        this.maxMovesPerRebalance = maxMovesPerRebalance;
+        this.rebalanceScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ShardedPlanningCoordinator-rebalance");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Splits the given solution in shards and starts all the planner nodes.
+     */
+    public synchronized void start(TaskAssigningSolution solution) {
+        userList = new ArrayList<>();
+        for (User user : solution.getUserList()) {
+            if (!ModelConstants.IS_PLANNING_USER.test(user.getId())) {
+                userList.add(user);
+            }
+        }
+        userGroupIndex = UserGroupIndex.build(userList);
+        shardByUserOrdinal = new int[userList.size()];
+        taskCountByShard = new int[nodes.size()];
+        userCountByShard = new int[nodes.size()];
+
+        List<List<User>> shardUserLists = new ArrayList<>();
+        List<List<TaskAssignment>> shardTaskAssignmentLists = new ArrayList<>();
+        List<Map<String, User>> shardUserById = new ArrayList<>();
+        for (int shard = 0; shard < nodes.size(); shard++) {
+            User planningUser = copyUser(ModelConstants.PLANNING_USER);
+            shardUserLists.add(new ArrayList<>(Collections.singletonList(planningUser)));
+            shardTaskAssignmentLists.add(new ArrayList<>());
+            Map<String, User> userById = new HashMap<>();
+            userById.put(planningUser.getId(), planningUser);
+            shardUserById.add(userById);
+        }
+        for (int userOrdinal = 0; userOrdinal < userList.size(); userOrdinal++) {
+            int shard = userOrdinal % nodes.size();
+            User user = copyUser(userList.get(userOrdinal));
+            shardByUserOrdinal[userOrdinal] = shard;
+            userCountByShard[shard]++;
+            shardUserLists.get(shard).add(user);
+            shardUserById.get(shard).put(user.getId(), user);
+        }
+
+        for (User user : solution.getUserList()) {
+            int userOrdinal = userGroupIndex.getUserOrdinal(user.getId());
+            int shard = userOrdinal >= 0 ? shardByUserOrdinal[userOrdinal] : leastLoadedShard(null);
+            User shardUser = shardUserById.get(shard).get(user.getId());
+            ChainElement previous = shardUser;
+            // the unpinned tasks in between are left out of the chain, they start unassigned.
+            for (TaskAssignment next = user.getNextElement(); next != null; next = next.getNextElement()) {
+                if (next.isPinned()) {
+                    TaskAssignment copy = copyPinnedTaskAssignment(next, previous, shardUser);
+                    shardTaskAssignmentLists.get(shard).add(copy);
+                    assignShard(copy.getId(), shard);
+                    pinnedTaskIds.add(copy.getId());
+                    previous = copy;
+                }
+            }
+        }
+        for (TaskAssignment taskAssignment : solution.getTaskAssignmentList()) {
+            latestTaskAssignmentById.put(taskAssignment.getId(), copyUnassignedTaskAssignment(taskAssignment));
+            if (!pinnedTaskIds.contains(taskAssignment.getId())) {
+                int shard = leastLoadedShard(eligibleShards(taskAssignment.getTask()));
+                shardTaskAssignmentLists.get(shard).add(copyUnassignedTaskAssignment(taskAssignment));
+                assignShard(taskAssignment.getId(), shard);
+            }
+        }
+        for (int shard = 0; shard < nodes.size(); shard++) {
+            nodes.get(shard).start(new TaskAssigningSolution(shardUserLists.get(shard), shardTaskAssignmentLists.get(shard)));
+        }
+    }
+
+    /**
+     * Calls {@link #rebalance()} with the given period until {@link #stop()} is called.
+     */
+    public void scheduleRebalance(long period, TimeUnit unit) {
+        rebalanceScheduler.scheduleWithFixedDelay(this::rebalance, period, period, unit);
+    }
+
+    public synchronized void addTask(TaskAssignment taskAssignment) {
+        if (shardByTaskId.containsKey(taskAssignment.getId())) {
+            throw new IllegalStateException(String.format("A task assignment with the given identifier id: %s already exists", taskAssignment.getId()));
+        }
+        int shard = leastLoadedShard(eligibleShards(taskAssignment.getTask()));
+        assignShard(taskAssignment.getId(), shard);
+        latestTaskAssignmentById.put(taskAssignment.getId(), copyUnassignedTaskAssignment(taskAssignment));
+        submit(shard, new AddTaskProblemFactChange(taskAssignment));
+    }
+
+    /**
+     * Updates the task in its shard, or moves it to another shard if the users of its shard are no longer eligible.
+     * A pinned task stays with its user.
+     */
+    public synchronized void updateTask(Task task) {
+        int shard = requireShard(task.getId());
+        TaskAssignment updated = new TaskAssignment(task);
+        updated.setDurationInMinutes(latestTaskAssignmentById.get(task.getId()).getDurationInMinutes());
+        latestTaskAssignmentById.put(task.getId(), updated);
+        BitSet eligibleShards = eligibleShards(task);
+        if (eligibleShards.isEmpty() || eligibleShards.get(shard) || pinnedTaskIds.contains(task.getId())) {
+            submit(shard, new UpdateTaskProblemFactChange(new TaskAssignment(task), task));
+        } else {
+            moveTask(task.getId(), shard, leastLoadedShard(eligibleShards));
+        }
+    }
+
+    public synchronized void removeTask(String taskId) {
+        int shard = requireShard(taskId);
+        shardByTaskId.remove(taskId);
+        latestTaskAssignmentById.remove(taskId);
+        pinnedTaskIds.remove(taskId);
+        taskCountByShard[shard]--;
+        submit(shard, new RemoveTaskProblemFactChange(new TaskAssignment(Task.newBuilder().id(taskId).build())));
+    }
+
+    /**
+     * Routes a change that only affects the given task to the shard that owns the task. The tasks of a
+     * PinTasksProblemFactChange are no longer moved to other shards, even the ones the shard leaves unpinned because
+     * they were not assigned yet.
+     */
+    public synchronized void submitTaskChange(String taskId, ProblemFactChange<TaskAssigningSolution> problemFactChange) {
+        int shard = requireShard(taskId);
+        if (problemFactChange instanceof PinTasksProblemFactChange) {
+            for (String pinnedTaskId : ((PinTasksProblemFactChange) problemFactChange).getTaskIds()) {
+                Integer pinnedTaskShard = shardByTaskId.get(pinnedTaskId);
+                if (pinnedTaskShard != null && pinnedTaskShard == shard) {
+                    pinnedTaskIds.add(pinnedTaskId);
+                }
+            }
+        }
+        submit(shard, problemFactChange);
+    }
+
+    /**
+     * Adds the user to the shard with the fewest users, or updates it if it already exists.
+     */
+    public synchronized void addUser(User user) {
+        if (userGroupIndex.getUserOrdinal(user.getId()) >= 0) {
+            updateUser(user);
+            return;
+        }
+        int shard = 0;
+        for (int candidate = 1; candidate < nodes.size(); candidate++) {
+            if (userCountByShard[candidate] < userCountByShard[shard]) {
+                shard = candidate;
+            }
+        }
+        userList.add(user);
+        userGroupIndex = UserGroupIndex.build(userList);
+        shardByUserOrdinal = Arrays.copyOf(shardByUserOrdinal, userList.size());
+        shardByUserOrdinal[userList.size() - 1] = shard;
+        userCountByShard[shard]++;
+        submit(shard, new AddUserProblemFactChange(copyUser(user)));
+    }
+
+    /**
+     * Updates the user in its shard, a disabled user re-homes its unpinned tasks within the shard. The routing of the
+     * following task changes takes the new groups and the enabled flag into account.
+     */
+    public synchronized void updateUser(User user) {
+        int userOrdinal = userGroupIndex.getUserOrdinal(user.getId());
+        if (userOrdinal < 0) {
+            throw new IllegalStateException(String.format("A user with the given identifier id: %s was not found", user.getId()));
+        }
+        userList.set(userOrdinal, user);
+        userGroupIndex = UserGroupIndex.build(userList);
+        submit(shardByUserOrdinal[userOrdinal], new UserPropertyChangeProblemFactChange(copyUser(user)));
+    }
+
+    /**
+     * Moves up to maxMovesPerRebalance unpinned tasks, based on the current best solutions of the shards. Tasks on a
+     * PLANNING_USER that are eligible in another shard are moved first, then tasks that are eligible in the least
+     * busy shard are moved from the busiest one. The best solutions only select the tasks, the eligibility and the
+     * moved tasks are based on the latest Task and duration known by the coordinator.
+     */
+    public synchronized void rebalance() {
+        int moves = 0;
+        for (int shard = 0; shard < nodes.size() && moves < maxMovesPerRebalance; shard++) {
+            for (TaskAssignment taskAssignment : nodes.get(shard).getBestSolution().getTaskAssignmentList()) {
+                if (moves >= maxMovesPerRebalance) {
+                    break;
+                }
+                if (isMovable(taskAssignment, shard) && ModelConstants.IS_PLANNING_USER.test(taskAssignment.getUser().getId())) {
+                    BitSet eligibleShards = eligibleShards(latestTask(taskAssignment.getId()));
+                    eligibleShards.clear(shard);
+                    if (!eligibleShards.isEmpty()) {
+                        moveTask(taskAssignment.getId(), shard, leastLoadedShard(eligibleShards));
+                        moves++;
+                    }
+                }
+            }
+        }
+
+        double[] workloadByShard = new double[nodes.size()];
+        for (int shard = 0; shard < nodes.size(); shard++) {
+            workloadByShard[shard] = averageWorkload(shard);
+        }
+        int busiestShard = 0;
+        int leastBusyShard = 0;
+        for (int shard = 1; shard < nodes.size(); shard++) {
+            if (workloadByShard[shard] > workloadByShard[busiestShard]) {
+                busiestShard = shard;
+            }
+            if (workloadByShard[shard] < workloadByShard[leastBusyShard]) {
+                leastBusyShard = shard;
+            }
+        }
+        if (workloadByShard[busiestShard] - workloadByShard[leastBusyShard] <= REBALANCE_WORKLOAD_THRESHOLD) {
+            return;
+        }
+        for (TaskAssignment taskAssignment : nodes.get(busiestShard).getBestSolution().getTaskAssignmentList()) {
+            if (moves >= maxMovesPerRebalance) {
+                break;
+            }
+            if (isMovable(taskAssignment, busiestShard) && eligibleShards(latestTask(taskAssignment.getId())).get(leastBusyShard)) {
+                moveTask(taskAssignment.getId(), busiestShard, leastBusyShard);
+                moves++;
+            }
+        }
+    }
+
+    /**
+     * @return a read-only view with the users and the task assignments of the best solutions of all the shards, and
+     *         the sum of their scores. Every shard contributes its own PLANNING_USER chain, the view lists only the
+     *         first PLANNING_USER.
+     */
+    public synchronized TaskAssigningSolution getGlobalView() {
+        List<User> globalUserList = new ArrayList<>();
+        List<TaskAssignment> globalTaskAssignmentList = new ArrayList<>();
+        BendableLongScore score = null;
+        boolean planningUserAdded = false;
+        for (PlannerNode node : nodes) {
+            TaskAssigningSolution bestSolution = node.getBestSolution();
+            for (User user : bestSolution.getUserList()) {
+                boolean planningUser = ModelConstants.IS_PLANNING_USER.test(user.getId());
+                if (!planningUser || !planningUserAdded) {
+                    globalUserList.add(user);
+                    planningUserAdded |= planningUser;
+                }
+            }
+            globalTaskAssignmentList.addAll(bestSolution.getTaskAssignmentList());
+            if (bestSolution.getScore() != null) {
+                score = score == null ? bestSolution.getScore() : score.add(bestSolution.getScore());
+            }
+        }
+        TaskAssigningSolution globalView = new TaskAssigningSolution();
+        globalView.setUserList(globalUserList);
+        globalView.setTaskAssignmentList(globalTaskAssignmentList);
+        globalView.setUserGroupIndex(userGroupIndex);
+        globalView.setScore(score);
+        return globalView;
+    }
+
+    public synchronized int getShard(String taskId) {
+        return requireShard(taskId);
+    }
+
+    public void stop() {
+        rebalanceScheduler.shutdownNow();
+        nodes.forEach(PlannerNode::stop);
+    }
+
+    private boolean isMovable(TaskAssignment taskAssignment, int shard) {
+        Integer currentShard = shardByTaskId.get(taskAssignment.getId());
+        // the best solution may be older than the latest routing decisions.
+        return currentShard != null && currentShard == shard && !taskAssignment.isPinned()
+                && !pinnedTaskIds.contains(taskAssignment.getId())
+                && taskAssignment.getUser() != null && ModelConstants.IS_NOT_DUMMY_TASK_ASSIGNMENT.test(taskAssignment);
+    }
+
+    /**
+     * Moves the task with its latest Task and duration, unassigned.
+     */
+    private void moveTask(String taskId, int fromShard, int toShard) {
+        submit(fromShard, new RemoveTaskProblemFactChange(new TaskAssignment(Task.newBuilder().id(taskId).build())));
+        taskCountByShard[fromShard]--;
+        assignShard(taskId, toShard);
+        submit(toShard, new AddTaskProblemFactChange(copyUnassignedTaskAssignment(latestTaskAssignmentById.get(taskId))));
+    }
+
+    private Task latestTask(String taskId) {
+        return latestTaskAssignmentById.get(taskId).getTask();
+    }
+
+    private double averageWorkload(int shard) {
+        long workload = 0;
+        for (TaskAssignment taskAssignment : nodes.get(shard).getBestSolution().getTaskAssignmentList()) {
+            if (taskAssignment.getUser() != null && !ModelConstants.IS_PLANNING_USER.test(taskAssignment.getUser().getId())) {
+                workload += taskAssignment.getDurationInMinutes();
+            }
+        }
+        return userCountByShard[shard] == 0 ? Double.MAX_VALUE : (double) workload / userCountByShard[shard];
+    }
+
+    /**
+     * @return the shards with at least one enabled potential owner of the task.
+     */
+    private BitSet eligibleShards(Task task) {
+        BitSet eligibleShards = new BitSet(nodes.size());
+        if (task.getPotentialUsers() != null) {
+            for (String userId : task.getPotentialUsers()) {
+                markEligible(eligibleShards, userGroupIndex.getUserOrdinal(userId));
+            }
+        }
+        BitSet potentialGroups = userGroupIndex.getPotentialGroups(task);
+        for (int group = potentialGroups.nextSetBit(0); group >= 0; group = potentialGroups.nextSetBit(group + 1)) {
+            BitSet members = userGroupIndex.getMembers(group);
+            for (int userOrdinal = members.nextSetBit(0); userOrdinal >= 0; userOrdinal = members.nextSetBit(userOrdinal + 1)) {
+                markEligible(eligibleShards, userOrdinal);
+            }
+        }
+        return eligibleShards;
+    }
+
+    private void markEligible(BitSet eligibleShards, int userOrdinal) {
+        if (userOrdinal >= 0 && userList.get(userOrdinal).isEnabled()) {
+            eligibleShards.set(shardByUserOrdinal[userOrdinal]);
+        }
+    }
+
+    /**
+     * @param candidateShards the shards to choose from, all the shards when null or empty.
+     */
+    private int leastLoadedShard(BitSet candidateShards) {
+        int result = -1;
+        for (int shard = 0; shard < nodes.size(); shard++) {
+            boolean candidate = candidateShards == null || candidateShards.isEmpty() || candidateShards.get(shard);
+            if (candidate && (result < 0 || taskCountByShard[shard] < taskCountByShard[result])) {
+                result = shard;
+            }
+        }
+        return result;
+    }
+
+    private void assignShard(String taskId, int shard) {
+        shardByTaskId.put(taskId, shard);
+        taskCountByShard[shard]++;
+    }
+
+    private int requireShard(String taskId) {
+        Integer shard = shardByTaskId.get(taskId);
+        if (shard == null) {
+            throw new IllegalStateException(String.format("A task assignment with the given identifier id: %s was not found", taskId));
+        }
+        return shard;
+    }
+
+    private void submit(int shard, ProblemFactChange<TaskAssigningSolution> problemFactChange) {
+        nodes.get(shard).addProblemFactChanges(Collections.singletonList(problemFactChange));
+    }
+
+    private static User copyUser(User user) {
+        return new User(user.getId(), user.isEnabled(), user.getAttributes());
+    }
+
+    private static TaskAssignment copyUnassignedTaskAssignment(TaskAssignment taskAssignment) {
+        TaskAssignment copy = new TaskAssignment(taskAssignment.getTask());
+        copy.setDurationInMinutes(taskAssignment.getDurationInMinutes());
+        return copy;
+    }
+
+    /**
+     * Shadow variables are not recalculated when the solving starts, so they are set here too.
+     */
+    private static TaskAssignment copyPinnedTaskAssignment(TaskAssignment taskAssignment, ChainElement previous, User user) {
+        TaskAssignment copy = copyUnassignedTaskAssignment(taskAssignment);
+        copy.setPinned(true);
+        copy.setPreviousElement(previous);
+        previous.setNextElement(copy);
+        copy.setUser(user);
+        int startTime = previous.isTaskAssignment() ? ((TaskAssignment) previous).getEndTimeInMinutes() : 0;
+        copy.setStartTimeInMinutes(startTime);
+        copy.setEndTimeInMinutes(startTime + copy.getDurationInMinutes());
+        return copy;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.example.pfc.simulation;
+
+/**
+ * The change of the user and the estimated end time of a task between the published best solution and the simulated one.
+ * The base values are null for a task added by the simulation, the simulated values are null for a removed task, and
+ * the user and the end time are null for an unassigned task.
+ */
+public final class TaskEtaChange {
+
+    private final String taskId;
+    private final String baseUserId;
+    private final String simulatedUserId;
+    private final Integer baseEndTimeInMinutes;
+    private final Integer simulatedEndTimeInMinutes;
+
+    public TaskEtaChange(String taskId, String baseUserId, String simulatedUserId, Integer baseEndTimeInMinutes,
+            Integer simulatedEndTimeInMinutes) {
+        this.taskId = taskId;
+        this.baseUserId = baseUserId;
+        this.simulatedUserId = simulatedUserId;
+        this.baseEndTimeInMinutes = baseEndTimeInMinutes;
+        this.simulatedEndTimeInMinutes = simulatedEndTimeInMinutes;
+    }
+
+    public String getTaskId() {
+        return taskId;
+    }
+
+    public String getBaseUserId() {
+        return baseUserId;
+    }
+
+    public String getSimulatedUserId() {
+        return simulatedUserId;
+    }
+
+    public Integer getBaseEndTimeInMinutes() {
+        return baseEndTimeInMinutes;
+    }
+
+    public Integer getSimulatedEndTimeInMinutes() {
+        return simulatedEndTimeInMinutes;
+    }
+
+    /**
+     * @return how many minutes later the task ends in the simulation, negative if it ends earlier, or null if the task
+     *         is unassigned in one of the solutions.
+     */
+    public Integer getDelayInMinutes() {
+        if (baseEndTimeInMinutes == null || simulatedEndTimeInMinutes == null) {
+            return null;
+        }
+        return simulatedEndTimeInMinutes - baseEndTimeInMinutes;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskEtaChange{" +
+                "taskId='" + taskId + '\'' +
+                ", baseUserId='" + baseUserId + '\'' +
+                ", simulatedUserId='" + simulatedUserId + '\'' +
+                ", baseEndTimeInMinutes=" + baseEndTimeInMinutes +
+                ", simulatedEndTimeInMinutes=" + simulatedEndTimeInMinutes +
+                '}';
+    }
+}
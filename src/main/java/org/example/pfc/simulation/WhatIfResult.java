@@ -0,0 +1,60 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.example.pfc.simulation;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.optaplanner.core.api.score.buildin.bendablelong.BendableLongScore;
+
+/**
+ * The outcome of a what-if simulation: the scores of the published best solution and the simulated solution, and the tasks whose user
+ * or estimated end time changed.
+ */
+public final class WhatIfResult {
+
+    private final BendableLongScore baseScore;
+    private final BendableLongScore simulatedScore;
+    private final List<TaskEtaChange> etaChanges;
+
+    WhatIfResult(BendableLongScore baseScore, BendableLongScore simulatedScore, List<TaskEtaChange> etaChanges) {
+        this.baseScore = baseScore;
+        this.simulatedScore = simulatedScore;
+        this.etaChanges = Collections.unmodifiableList(etaChanges);
+    }
+
+    public BendableLongScore getBaseScore() {
+        return baseScore;
+    }
+
+    public BendableLongScore getSimulatedScore() {
+        return simulatedScore;
+    }
+
+    /**
+     * @return the simulated score minus the base score, or null if one of them wasn't calculated.
+     */
+    public BendableLongScore getScoreDiff() {
+        if (baseScore == null || simulatedScore == null) {
+            return null;
+        }
+        return simulatedScore.subtract(baseScore);
+    }
+
+    public List<TaskEtaChange> getEtaChanges() {
+        return etaChanges;
+    }
+}
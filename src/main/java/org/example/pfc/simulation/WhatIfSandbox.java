@@ -0,0 +1,131 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.example.pfc.simulation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.example.pfc.domain.TaskAssigningSolution;
+import org.example.pfc.domain.TaskAssignment;
+import org.example.pfc.solver.TaskAssigningSolverConfigs;
+import org.optaplanner.core.api.solver.ProblemFactChange;
+import org.optaplanner.core.api.solver.Solver;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.config.solver.termination.TerminationConfig;
+
+/**
+ * Runs what-if simulations, e.g. a user going offline or a batch of new tasks, on a published best solution without
+ * disturbing the solver that published it.
+ * <p>
+ * The simulation solver is given a {@link TaskAssigningSolution#shallowCopy() shallow copy} of the best solution, so
+ * only the score of the copy is written. The solver plans on its own planning clone of that copy, and the hypothetical
+ * changes are applied to the clone as problem fact changes, so the published best solution is never modified.
+ * <p>
+ * The planning clone copies every TaskAssignment and every User, since the local search may move any task to any
+ * chain: sharing the chains a simulation doesn't touch would require knowing them before the solving. Only the Tasks,
+ * the user attribute maps and the UserGroupIndex are shared by all the clones. A solver holds at most three clones at
+ * a time, its working solution, its best solution and the best solution that replaces it. With compressed oops a
+ * clone takes about 84 bytes per TaskAssignment, 48 for the object and 32 for its start and end time Integers plus
+ * its list slot, and 36 bytes per User, so a simulation of 10,000 tasks and 500 users needs at most about 2.6 MB for
+ * its entities. The score calculation state of the simulation solver comes on top, it doesn't depend on the cloning.
+ * WhatIfMemoryBenchmarkApp measures the heap used by concurrent simulations.
+ * <p>
+ * The changes are added before the solving starts, so they are processed first, and the solving stops after the
+ * configured time limit. Simulations run concurrently on the sandbox thread pool, each with its own single-threaded
+ * solver.
+ */
+public class WhatIfSandbox implements AutoCloseable {
+
+    private final SolverFactory<TaskAssigningSolution> solverFactory;
+    private final ExecutorService executorService;
+
+    public WhatIfSandbox(long timeLimitMillis, int maxConcurrentSimulations) {
+        SolverConfig config = TaskAssigningSolverConfigs.createBaseConfig();
+        // the simulations run in parallel already.
+        config.setMoveThreadCount(SolverConfig.MOVE_THREAD_COUNT_NONE);
+        config.setTerminationConfig(new TerminationConfig().withMillisecondsSpentLimit(timeLimitMillis));
+        this.solverFactory = SolverFactory.create(config);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executorService = Executors.newFixedThreadPool(maxConcurrentSimulations, runnable -> {
+            Thread thread = new Thread(runnable, "WhatIfSandbox-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @param bestSolution a best solution published by a solver, it's not modified.
+     * @param changes the hypothetical changes, e.g. an AddTaskProblemFactChange per new task. The changes must not be
+     *        used by another simulation, since an added TaskAssignment becomes part of the simulation working solution.
+     */
+    public CompletableFuture<WhatIfResult> simulate(TaskAssigningSolution bestSolution,
+            List<ProblemFactChange<TaskAssigningSolution>> changes) {
+        TaskAssigningSolution problem = bestSolution.shallowCopy();
+        return CompletableFuture.supplyAsync(() -> {
+            Solver<TaskAssigningSolution> solver = solverFactory.buildSolver();
+            if (!changes.isEmpty()) {
+                solver.addProblemFactChanges(changes);
+            }
+            TaskAssigningSolution simulatedSolution = solver.solve(problem);
+            return new WhatIfResult(bestSolution.getScore(), simulatedSolution.getScore(),
+                    diffEtas(bestSolution, simulatedSolution));
+        }, executorService);
+    }
+
+    @Override
+    public void close() {
+        executorService.shutdownNow();
+    }
+
+    /**
+     * @return the tasks that were added, removed, or have another user or end time in the simulated solution.
+     */
+    static List<TaskEtaChange> diffEtas(TaskAssigningSolution baseSolution, TaskAssigningSolution simulatedSolution) {
+        Map<String, TaskAssignment> baseById = new HashMap<>();
+        for (TaskAssignment taskAssignment : baseSolution.getTaskAssignmentList()) {
+            baseById.put(taskAssignment.getId(), taskAssignment);
+        }
+        List<TaskEtaChange> etaChanges = new ArrayList<>();
+        for (TaskAssignment simulated : simulatedSolution.getTaskAssignmentList()) {
+            TaskAssignment base = baseById.remove(simulated.getId());
+            String baseUserId = base != null ? userId(base) : null;
+            Integer baseEndTime = base != null ? endTime(base) : null;
+            if (base == null || !Objects.equals(baseUserId, userId(simulated)) || !Objects.equals(baseEndTime, endTime(simulated))) {
+                etaChanges.add(new TaskEtaChange(simulated.getId(), baseUserId, userId(simulated), baseEndTime, endTime(simulated)));
+            }
+        }
+        for (TaskAssignment removed : baseById.values()) {
+            etaChanges.add(new TaskEtaChange(removed.getId(), userId(removed), null, endTime(removed), null));
+        }
+        return etaChanges;
+    }
+
+    private static String userId(TaskAssignment taskAssignment) {
+        return taskAssignment.getUser() != null ? taskAssignment.getUser().getId() : null;
+    }
+
+    private static Integer endTime(TaskAssignment taskAssignment) {
+        return taskAssignment.getUser() != null ? taskAssignment.getEndTimeInMinutes() : null;
+    }
+}
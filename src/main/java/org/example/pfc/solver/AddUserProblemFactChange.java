@@ -0,0 +1,55 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.example.pfc.solver;
+
+import org.example.pfc.domain.TaskAssigningSolution;
+import org.example.pfc.domain.User;
+import org.optaplanner.core.api.score.director.ScoreDirector;
+import org.optaplanner.core.api.solver.ProblemFactChange;
+
+/**
+ * Adds a User to the working solution and rebuilds the UserGroupIndex. If a User with the given identifier already
+ * exists, e.g. a user that comes back online, its enabled flag and attributes are updated instead, see
+ * UserPropertyChangeProblemFactChange.
+ */
+public class AddUserProblemFactChange implements ProblemFactChange<TaskAssigningSolution> {
+
+    private User user;
+
+    public AddUserProblemFactChange(User user) {
+        this.user = user;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    @Override
+    public void doChange(ScoreDirector<TaskAssigningSolution> scoreDirector) {
+        User workingUser = scoreDirector.lookUpWorkingObjectOrReturnNull(user);
+        if (workingUser != null) {
+            new UserPropertyChangeProblemFactChange(user).doChange(scoreDirector);
+            return;
+        }
+        TaskAssigningSolution solution = scoreDirector.getWorkingSolution();
+        scoreDirector.beforeProblemFactAdded(user);
+        // User is a planning entity class, so the userList is already cloned by the SolutionCloner, no need to clone.
+        solution.getUserList().add(user);
+        scoreDirector.afterProblemFactAdded(user);
+        ProblemFactChangeSupport.rebuildUserGroupIndex(scoreDirector);
+        scoreDirector.triggerVariableListeners();
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.example.pfc.solver;
+
+import java.util.Arrays;
+
+import org.example.pfc.domain.TaskAssigningSolution;
+import org.optaplanner.core.config.constructionheuristic.ConstructionHeuristicPhaseConfig;
+import org.optaplanner.core.config.localsearch.LocalSearchPhaseConfig;
+import org.optaplanner.core.config.phase.custom.CustomPhaseConfig;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.config.solver.termination.TerminationConfig;
+import org.optaplanner.core.impl.phase.custom.CustomPhaseCommand;
+
+/**
+ * Termination and restart policy for a solver that receives a steady flow of problem fact changes.
+ * <ul>
+ * <li>The solver runs in daemon mode and the local search stops once the best score didn't improve for
+ * unimprovedMillisecondsSpentLimit, so the search stops once the improvement flattens. The solver then stays idle,
+ * without using CPU, until the next problem fact change arrives.</li>
+ * <li>Problem fact changes are not submitted one by one but in batches by the {@link ProblemFactChangeBatcher}: a
+ * batch is submitted once no change arrived for a quiet window, or once its oldest change waited for
+ * maxChangeDelayMillis, so every batch costs a single restart. The quiet window follows the rate of incoming changes,
+ * between minQuietWindowMillis for fast bursts and quietWindowMillis for sparse changes. While the solver is idle a
+ * batch is submitted right away.</li>
+ * <li>On every restart the construction heuristic only visits the uninitialized TaskAssignments, so batches that only
+ * update, remove or pin tasks skip the construction work and go straight to the local search.</li>
+ * </ul>
+ */
+public class ChangeAwareRestartPolicy {
+
+    private long minQuietWindowMillis = 20;
+    private long quietWindowMillis = 200;
+    private long maxChangeDelayMillis = 2000;
+    private long unimprovedMillisecondsSpentLimit = 5000;
+
+    private ChangeAwareRestartPolicy() {
+    }
+
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    public long getMinQuietWindowMillis() {
+        return minQuietWindowMillis;
+    }
+
+    public long getQuietWindowMillis() {
+        return quietWindowMillis;
+    }
+
+    public long getMaxChangeDelayMillis() {
+        return maxChangeDelayMillis;
+    }
+
+    public long getUnimprovedMillisecondsSpentLimit() {
+        return unimprovedMillisecondsSpentLimit;
+    }
+
+    /**
+     * Configures the given solver configuration with daemon mode and phases that stop when the improvement flattens.
+     * Previously configured phases and terminations are replaced.
+     *
+     * @return the given configuration.
+     */
+    public SolverConfig applyTo(SolverConfig config) {
+        config.setDaemon(true);
+        config.setTerminationConfig(null);
+        config.setPhaseConfigList(Arrays.asList(new ConstructionHeuristicPhaseConfig(), buildLocalSearchPhaseConfig()));
+        return config;
+    }
+
+    /**
+     * Like {@link #applyTo(SolverConfig)}, followed by a custom phase that calls the solverIdleListener. The solver
+     * skips the remaining phases as soon as problem fact changes restart it, so the custom phase only runs when the
+     * local search ended by its own termination and the solver is about to wait for changes.
+     *
+     * @return the given configuration.
+     */
+    SolverConfig applyTo(SolverConfig config, Runnable solverIdleListener) {
+        config.setDaemon(true);
+        config.setTerminationConfig(null);
+        CustomPhaseCommand<TaskAssigningSolution> solverIdleCommand = scoreDirector -> solverIdleListener.run();
+        config.setPhaseConfigList(Arrays.asList(new ConstructionHeuristicPhaseConfig(), buildLocalSearchPhaseConfig(),
+                new CustomPhaseConfig().withCustomPhaseCommands(solverIdleCommand)));
+        return config;
+    }
+
+    private LocalSearchPhaseConfig buildLocalSearchPhaseConfig() {
+        LocalSearchPhaseConfig localSearchPhaseConfig = new LocalSearchPhaseConfig();
+        localSearchPhaseConfig.setTerminationConfig(new TerminationConfig()
+                .withUnimprovedMillisecondsSpentLimit(unimprovedMillisecondsSpentLimit));
+        return localSearchPhaseConfig;
+    }
+
+    @Override
+    public String toString() {
+        return "ChangeAwareRestartPolicy{" +
+                "minQuietWindowMillis=" + minQuietWindowMillis +
+                ", quietWindowMillis=" + quietWindowMillis +
+                ", maxChangeDelayMillis=" + maxChangeDelayMillis +
+                ", unimprovedMillisecondsSpentLimit=" + unimprovedMillisecondsSpentLimit +
+                '}';
+    }
+
+    public static class Builder {
+
+        private ChangeAwareRestartPolicy policy = new ChangeAwareRestartPolicy();
+
+        private Builder() {
+        }
+
+        public ChangeAwareRestartPolicy build() {
+            if (policy.quietWindowMillis < policy.minQuietWindowMillis) {
+                throw new IllegalArgumentException(String.format("The quietWindowMillis: %s can't be lower than the minQuietWindowMillis: %s",
+                        policy.quietWindowMillis, policy.minQuietWindowMillis));
+            }
+            if (policy.maxChangeDelayMillis < policy.quietWindowMillis) {
+                throw new IllegalArgumentException(String.format("The maxChangeDelayMillis: %s can't be lower than the quietWindowMillis: %s",
+                        policy.maxChangeDelayMillis, policy.quietWindowMillis));
+            }
+            return policy;
+        }
+
+        public Builder minQuietWindowMillis(long minQuietWindowMillis) {
+            policy.minQuietWindowMillis = minQuietWindowMillis;
+            return this;
+        }
+
+        public Builder quietWindowMillis(long quietWindowMillis) {
+            policy.quietWindowMillis = quietWindowMillis;
+            return this;
+        }
+
+        public Builder maxChangeDelayMillis(long maxChangeDelayMillis) {
+            policy.maxChangeDelayMillis = maxChangeDelayMillis;
+            return this;
+        }
+
+        public Builder unimprovedMillisecondsSpentLimit(long unimprovedMillisecondsSpentLimit) {
+            policy.unimprovedMillisecondsSpentLimit = unimprovedMillisecondsSpentLimit;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.example.pfc.solver;
+
+import static org.example.pfc.domain.TaskAssignment.PREVIOUS_ELEMENT;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.example.pfc.domain.ModelConstants;
+import org.example.pfc.domain.TaskAssigningSolution;
+import org.example.pfc.domain.TaskAssignment;
+import org.example.pfc.domain.User;
+import org.example.pfc.domain.UserGroupIndex;
+import org.optaplanner.core.api.score.director.ScoreDirector;
+import org.optaplanner.core.api.solver.ProblemFactChange;
+
+/**
+ * Disables an existing User of the working solution and re-homes the unpinned tasks of its chain. The pinned tasks,
+ * i.e. the tasks the user already started, stay with the user in their order, wherever they are in the chain. If no
+ * User with the given identifier exists an exception is thrown.
+ * <p>
+ * Each unpinned task goes to the enabled potential owner with the lowest workload, counting the tasks re-homed by this
+ * change, or to the PLANNING_USER if the task has no enabled potential owner. Each target chain is then re-linked and
+ * gets its start and end times recalculated once. Consecutive tasks that go to the same user stay linked, so they move
+ * as one sub chain with a single previousElement change. If the working solution has no PLANNING_USER, the tasks
+ * without a potential owner are left unassigned for the solver to assign them again.
+ */
+public class DisableUserProblemFactChange implements ProblemFactChange<TaskAssigningSolution> {
+
+    private User user;
+
+    public DisableUserProblemFactChange(User user) {
+        this.user = user;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    @Override
+    public void doChange(ScoreDirector<TaskAssigningSolution> scoreDirector) {
+        User workingUser = scoreDirector.lookUpWorkingObjectOrReturnNull(user);
+        if (workingUser == null) {
+            throw new IllegalStateException(String.format("A user with the given identifier id: %s was not found", user.getId()));
+        }
+        if (workingUser.isEnabled()) {
+            scoreDirector.beforeProblemPropertyChanged(workingUser);
+            workingUser.setEnabled(false);
+            scoreDirector.afterProblemPropertyChanged(workingUser);
+            // the UserGroupIndex is a join of the "Required potential owner" constraint, replacing it re-evaluates the
+            // tasks of the disabled user.
+            ProblemFactChangeSupport.rebuildUserGroupIndex(scoreDirector);
+        }
+        rehomeUnpinnedTasks(scoreDirector, workingUser);
+        scoreDirector.triggerVariableListeners();
+    }
+
+    static void rehomeUnpinnedTasks(ScoreDirector<TaskAssigningSolution> scoreDirector, User disabledUser) {
+        List<TaskAssignment> pinnedTasks = new ArrayList<>();
+        List<TaskAssignment> unpinnedTasks = new ArrayList<>();
+        for (TaskAssignment next = disabledUser.getNextElement(); next != null; next = next.getNextElement()) {
+            // pinned tasks never move, not even the ones that follow an unpinned task.
+            if (next.isPinned()) {
+                pinnedTasks.add(next);
+            } else {
+                unpinnedTasks.add(next);
+            }
+        }
+        if (unpinnedTasks.isEmpty()) {
+            return;
+        }
+        TaskAssigningSolution solution = scoreDirector.getWorkingSolution();
+        UserGroupIndex userGroupIndex = solution.getUserGroupIndex();
+        Map<User, Long> workloadByUser = new HashMap<>();
+        for (TaskAssignment taskAssignment : solution.getTaskAssignmentList()) {
+            if (taskAssignment.getUser() != null) {
+                workloadByUser.merge(taskAssignment.getUser(), (long) taskAssignment.getDurationInMinutes(), Long::sum);
+            }
+        }
+        User planningUser = WorkingObjects.lookUpPlanningUser(scoreDirector);
+
+        // insertion ordered, so the chains are re-linked in a reproducible order.
+        Map<User, List<TaskAssignment>> tasksByTargetUser = new LinkedHashMap<>();
+        List<TaskAssignment> unassignedTasks = new ArrayList<>();
+        for (TaskAssignment taskAssignment : unpinnedTasks) {
+            User targetUser = findLeastLoadedPotentialOwner(solution.getUserList(), userGroupIndex, workloadByUser, taskAssignment);
+            if (targetUser == null) {
+                targetUser = planningUser;
+            }
+            if (targetUser == null) {
+                unassignedTasks.add(taskAssignment);
+            } else {
+                tasksByTargetUser.computeIfAbsent(targetUser, key -> new ArrayList<>()).add(taskAssignment);
+                workloadByUser.merge(targetUser, (long) taskAssignment.getDurationInMinutes(), Long::sum);
+            }
+        }
+
+        for (TaskAssignment taskAssignment : unassignedTasks) {
+            scoreDirector.beforeVariableChanged(taskAssignment, PREVIOUS_ELEMENT);
+            taskAssignment.setPreviousElement(null);
+            scoreDirector.afterVariableChanged(taskAssignment, PREVIOUS_ELEMENT);
+        }
+        for (Map.Entry<User, List<TaskAssignment>> entry : tasksByTargetUser.entrySet()) {
+            List<TaskAssignment> chain = new ArrayList<>();
+            for (TaskAssignment next = entry.getKey().getNextElement(); next != null; next = next.getNextElement()) {
+                chain.add(next);
+            }
+            chain.addAll(entry.getValue());
+            ProblemFactChangeSupport.relinkChain(scoreDirector, entry.getKey(), chain);
+        }
+        // closes the gaps left by the re-homed tasks between the pinned ones.
+        ProblemFactChangeSupport.relinkChain(scoreDirector, disabledUser, pinnedTasks);
+    }
+
+    /**
+     * @return the enabled potential owner of the task with the lowest workload, or null if the task has no enabled
+     *         potential owner. The PLANNING_USER is never returned.
+     */
+    private static User findLeastLoadedPotentialOwner(List<User> userList, UserGroupIndex userGroupIndex,
+            Map<User, Long> workloadByUser, TaskAssignment taskAssignment) {
+        BitSet candidates = new BitSet(userList.size());
+        if (taskAssignment.getTask().getPotentialUsers() != null) {
+            for (String userId : taskAssignment.getTask().getPotentialUsers()) {
+                int userOrdinal = userGroupIndex.getUserOrdinal(userId);
+                if (userOrdinal >= 0) {
+                    candidates.set(userOrdinal);
+                }
+            }
+        }
+        BitSet potentialGroups = userGroupIndex.getPotentialGroups(taskAssignment.getTask());
+        for (int group = potentialGroups.nextSetBit(0); group >= 0; group = potentialGroups.nextSetBit(group + 1)) {
+            candidates.or(userGroupIndex.getMembers(group));
+        }
+        User result = null;
+        long resultWorkload = Long.MAX_VALUE;
+        for (int userOrdinal = candidates.nextSetBit(0); userOrdinal >= 0; userOrdinal = candidates.nextSetBit(userOrdinal + 1)) {
+            // the UserGroupIndex is built from the userList, so the user ordinals are the positions in the userList.
+            User candidate = userList.get(userOrdinal);
+            long workload = workloadByUser.getOrDefault(candidate, 0L);
+            if (candidate.isEnabled() && !ModelConstants.IS_PLANNING_USER.test(candidate.getId()) && workload < resultWorkload) {
+                result = candidate;
+                resultWorkload = workload;
+            }
+        }
+        return result;
+    }
+}
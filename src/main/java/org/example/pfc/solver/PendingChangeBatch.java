@@ -0,0 +1,123 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.example.pfc.solver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.example.pfc.domain.TaskAssigningSolution;
+import org.optaplanner.core.api.solver.ProblemFactChange;
+
+/**
+ * The pending changes of a {@link ProblemFactChangeBatcher} and the decision when to submit them. The current time is
+ * given by the caller, so the decisions don't depend on the wall clock. Not thread-safe, the batcher synchronizes the
+ * access.
+ * <p>
+ * The quiet window adapts to the rate of incoming changes: the end of a burst is detected once no change arrived for
+ * twice the average gap between the changes, kept within the min quiet window and the quiet window of the policy. A
+ * fast burst is therefore submitted shortly after its last change, while sparse changes wait for the whole quiet
+ * window.
+ */
+class PendingChangeBatch {
+
+    // weight of the latest gap in the average gap between the changes.
+    private static final double GAP_SMOOTHING = 0.25;
+
+    private final long minQuietWindowNanos;
+    private final long quietWindowNanos;
+    private final long maxChangeDelayNanos;
+
+    private List<ProblemFactChange<TaskAssigningSolution>> changes = new ArrayList<>();
+    private long firstArrivalNanos;
+    private long lastArrivalNanos = -1;
+    private double averageGapNanos = -1;
+    private boolean solverIdle;
+
+    PendingChangeBatch(ChangeAwareRestartPolicy policy) {
+        this.minQuietWindowNanos = TimeUnit.MILLISECONDS.toNanos(policy.getMinQuietWindowMillis());
+        this.quietWindowNanos = TimeUnit.MILLISECONDS.toNanos(policy.getQuietWindowMillis());
+        this.maxChangeDelayNanos = TimeUnit.MILLISECONDS.toNanos(policy.getMaxChangeDelayMillis());
+    }
+
+    void add(ProblemFactChange<TaskAssigningSolution> change, long nowNanos) {
+        if (changes.isEmpty()) {
+            firstArrivalNanos = nowNanos;
+        }
+        if (lastArrivalNanos >= 0) {
+            // the gaps between batches count too, a long pause pushes the window to its upper bound.
+            long gapNanos = nowNanos - lastArrivalNanos;
+            averageGapNanos = averageGapNanos < 0
+                    ? gapNanos
+                    : averageGapNanos + GAP_SMOOTHING * (gapNanos - averageGapNanos);
+        }
+        lastArrivalNanos = nowNanos;
+        changes.add(change);
+    }
+
+    /**
+     * @return twice the average gap between the changes, within the min quiet window and the quiet window. The quiet
+     *         window until a second change gives a gap.
+     */
+    long getEffectiveQuietWindowNanos() {
+        if (averageGapNanos < 0) {
+            return quietWindowNanos;
+        }
+        return Math.max(minQuietWindowNanos, Math.min(quietWindowNanos, Math.round(2 * averageGapNanos)));
+    }
+
+    int size() {
+        return changes.size();
+    }
+
+    boolean isSolverIdle() {
+        return solverIdle;
+    }
+
+    void setSolverIdle(boolean solverIdle) {
+        this.solverIdle = solverIdle;
+    }
+
+    /**
+     * @return true if there are pending changes and either the solver is idle, no change arrived during the effective
+     *         quiet window, or the oldest change waited for the max change delay.
+     */
+    boolean isDue(long nowNanos) {
+        return !changes.isEmpty()
+                && (solverIdle
+                        || nowNanos - lastArrivalNanos >= getEffectiveQuietWindowNanos()
+                        || nowNanos - firstArrivalNanos >= maxChangeDelayNanos);
+    }
+
+    /**
+     * @return the pending changes if they are due, otherwise null.
+     */
+    List<ProblemFactChange<TaskAssigningSolution>> takeIfDue(long nowNanos) {
+        return isDue(nowNanos) ? takeAll() : null;
+    }
+
+    /**
+     * @return the pending changes, possibly none. The submitted changes restart the solver, so it's no longer idle.
+     */
+    List<ProblemFactChange<TaskAssigningSolution>> takeAll() {
+        List<ProblemFactChange<TaskAssigningSolution>> batch = changes;
+        changes = new ArrayList<>();
+        if (!batch.isEmpty()) {
+            solverIdle = false;
+        }
+        return batch;
+    }
+}
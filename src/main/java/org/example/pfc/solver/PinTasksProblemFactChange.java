@@ -0,0 +1,98 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.example.pfc.solver;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.example.pfc.domain.TaskAssigningSolution;
+import org.example.pfc.domain.TaskAssignment;
+import org.example.pfc.domain.User;
+import org.optaplanner.core.api.score.director.ScoreDirector;
+import org.optaplanner.core.api.solver.ProblemFactChange;
+
+/**
+ * Pins the TaskAssignments with the given identifiers, e.g. when their tasks were started. Each TaskAssignment is
+ * moved, if needed, right after the already pinned TaskAssignments of its user's chain, so the pinned TaskAssignments
+ * of a chain are always its first elements. The TaskAssignments to pin keep their relative order.
+ * <p>
+ * Every affected chain is re-linked and gets its start and end times recalculated once, no matter how many of its
+ * TaskAssignments are pinned. TaskAssignments that were not yet assigned are left unpinned, as pinning them would
+ * keep them unassigned. If no TaskAssignment with one of the given identifiers exists an exception is thrown.
+ */
+public class PinTasksProblemFactChange implements ProblemFactChange<TaskAssigningSolution> {
+
+    private Set<String> taskIds;
+
+    public PinTasksProblemFactChange(Set<String> taskIds) {
+        this.taskIds = taskIds;
+    }
+
+    public Set<String> getTaskIds() {
+        return taskIds;
+    }
+
+    @Override
+    public void doChange(ScoreDirector<TaskAssigningSolution> scoreDirector) {
+        TaskAssigningSolution solution = scoreDirector.getWorkingSolution();
+        Set<String> notFoundTaskIds = new HashSet<>(taskIds);
+        // insertion ordered, so the chains are processed in a reproducible order.
+        Set<User> affectedUsers = new LinkedHashSet<>();
+        for (TaskAssignment taskAssignment : solution.getTaskAssignmentList()) {
+            if (notFoundTaskIds.remove(taskAssignment.getId()) && taskAssignment.getUser() != null && !taskAssignment.isPinned()) {
+                affectedUsers.add(taskAssignment.getUser());
+            }
+        }
+        if (!notFoundTaskIds.isEmpty()) {
+            throw new IllegalStateException(String.format("A task assignment with the given identifier id: %s was not found", notFoundTaskIds.iterator().next()));
+        }
+        for (User user : affectedUsers) {
+            pinInChain(scoreDirector, user);
+        }
+        scoreDirector.triggerVariableListeners();
+    }
+
+    private void pinInChain(ScoreDirector<TaskAssigningSolution> scoreDirector, User user) {
+        List<TaskAssignment> pinnedPrefix = new ArrayList<>();
+        List<TaskAssignment> toPin = new ArrayList<>();
+        List<TaskAssignment> rest = new ArrayList<>();
+        for (TaskAssignment next = user.getNextElement(); next != null; next = next.getNextElement()) {
+            // an already pinned task that doesn't follow the pinned prefix, e.g. in a loaded solution, joins it.
+            if (next.isPinned()) {
+                pinnedPrefix.add(next);
+            } else if (taskIds.contains(next.getId())) {
+                toPin.add(next);
+            } else {
+                rest.add(next);
+            }
+        }
+        List<TaskAssignment> chain = new ArrayList<>(pinnedPrefix.size() + toPin.size() + rest.size());
+        chain.addAll(pinnedPrefix);
+        chain.addAll(toPin);
+        chain.addAll(rest);
+        ProblemFactChangeSupport.relinkChain(scoreDirector, user, chain);
+        for (TaskAssignment taskAssignment : toPin) {
+            if (!taskAssignment.isPinned()) {
+                scoreDirector.beforeProblemPropertyChanged(taskAssignment);
+                taskAssignment.setPinned(true);
+                scoreDirector.afterProblemPropertyChanged(taskAssignment);
+            }
+        }
+    }
+}
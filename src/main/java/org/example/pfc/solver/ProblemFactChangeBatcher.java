@@ -0,0 +1,154 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.example.pfc.solver;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.example.pfc.domain.TaskAssigningSolution;
+import org.optaplanner.core.api.solver.ProblemFactChange;
+import org.optaplanner.core.api.solver.Solver;
+import org.optaplanner.core.config.solver.SolverConfig;
+
+/**
+ * Collects the problem fact changes for a solver and submits them in batches according to a
+ * {@link ChangeAwareRestartPolicy}, so that a burst of changes causes one solver restart instead of one per change.
+ * <p>
+ * A batch is submitted when no change arrived during the quiet window, or when its oldest change waited for the max
+ * change delay, which bounds the change latency when the changes arrive faster than the quiet window. When the local
+ * search phase of the policy has ended by its own termination the solver is idle, waiting for problem fact changes,
+ * so pending changes are submitted right away since a restart interrupts no search. The idle state is signalled by a
+ * final custom phase added by {@link #applyTo(SolverConfig)}, and cleared by the next submitted batch or best
+ * solution.
+ * <pre>
+ * ProblemFactChangeBatcher batcher = new ProblemFactChangeBatcher(policy);
+ * Solver&lt;TaskAssigningSolution&gt; solver = SolverFactory.create(batcher.applyTo(solverConfig)).buildSolver();
+ * batcher.start(solver);
+ * </pre>
+ */
+public class ProblemFactChangeBatcher implements AutoCloseable {
+
+    private static final long MIN_TICK_MILLIS = 10;
+
+    private final ChangeAwareRestartPolicy policy;
+    private final ScheduledExecutorService scheduler;
+
+    // guards the pendingChangeBatch.
+    private final Object lock = new Object();
+    private final PendingChangeBatch pendingChangeBatch;
+
+    private final AtomicLong submittedBatches = new AtomicLong();
+    private final AtomicLong submittedChanges = new AtomicLong();
+
+    private volatile Solver<TaskAssigningSolution> solver;
+
+    public ProblemFactChangeBatcher(ChangeAwareRestartPolicy policy) {
+        this.policy = policy;
+        this.pendingChangeBatch = new PendingChangeBatch(policy);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ProblemFactChangeBatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Applies the policy to the given configuration, including the phase that signals the idle solver to this batcher.
+     * The solver built from it must be given to {@link #start(Solver)}.
+     *
+     * @return the given configuration.
+     */
+    public SolverConfig applyTo(SolverConfig config) {
+        return policy.applyTo(config, () -> setSolverIdle(true));
+    }
+
+    /**
+     * Starts submitting the changes to the given solver, built from a configuration passed to
+     * {@link #applyTo(SolverConfig)}. Changes added before are kept and submitted once due.
+     */
+    public void start(Solver<TaskAssigningSolution> solver) {
+        if (this.solver != null) {
+            throw new IllegalStateException("The ProblemFactChangeBatcher has already been started.");
+        }
+        this.solver = solver;
+        // a new best solution means the solver is solving again, for instance after changes submitted elsewhere.
+        solver.addEventListener(event -> setSolverIdle(false));
+        long tickMillis = Math.max(MIN_TICK_MILLIS, policy.getMinQuietWindowMillis() / 2);
+        scheduler.scheduleWithFixedDelay(this::submitIfDue, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void addProblemFactChange(ProblemFactChange<TaskAssigningSolution> problemFactChange) {
+        synchronized (lock) {
+            pendingChangeBatch.add(problemFactChange, System.nanoTime());
+        }
+    }
+
+    /**
+     * @return the number of batches submitted to the solver, which is the number of restarts caused by this batcher.
+     */
+    public long getSubmittedBatches() {
+        return submittedBatches.get();
+    }
+
+    public long getSubmittedChanges() {
+        return submittedChanges.get();
+    }
+
+    void setSolverIdle(boolean solverIdle) {
+        synchronized (lock) {
+            pendingChangeBatch.setSolverIdle(solverIdle);
+        }
+    }
+
+    void submitIfDue() {
+        List<ProblemFactChange<TaskAssigningSolution>> batch;
+        synchronized (lock) {
+            batch = pendingChangeBatch.takeIfDue(System.nanoTime());
+        }
+        if (batch != null) {
+            submit(batch);
+        }
+    }
+
+    private void submit(List<ProblemFactChange<TaskAssigningSolution>> batch) {
+        // all the changes of a batch are added at once, so the solver processes them in a single restart.
+        solver.addProblemFactChanges(batch);
+        submittedBatches.incrementAndGet();
+        submittedChanges.addAndGet(batch.size());
+    }
+
+    /**
+     * Submits the pending changes, if any, and stops the batching. When the batcher was never started the pending
+     * changes are discarded.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        if (solver == null) {
+            return;
+        }
+        List<ProblemFactChange<TaskAssigningSolution>> batch;
+        synchronized (lock) {
+            batch = pendingChangeBatch.takeAll();
+        }
+        if (!batch.isEmpty()) {
+            submit(batch);
+        }
+    }
+}
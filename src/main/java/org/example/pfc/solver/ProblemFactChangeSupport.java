@@ -0,0 +1,86 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.example.pfc.solver;
+
+import static org.example.pfc.domain.TaskAssignment.END_TIME_IN_MINUTES;
+import static org.example.pfc.domain.TaskAssignment.PREVIOUS_ELEMENT;
+import static org.example.pfc.domain.TaskAssignment.START_TIME_IN_MINUTES;
+
+import java.util.List;
+import java.util.Objects;
+
+import org.example.pfc.domain.ChainElement;
+import org.example.pfc.domain.TaskAssigningSolution;
+import org.example.pfc.domain.TaskAssignment;
+import org.example.pfc.domain.UserGroupIndex;
+import org.optaplanner.core.api.score.director.ScoreDirector;
+
+/**
+ * Helper methods shared by the problem fact changes.
+ */
+class ProblemFactChangeSupport {
+
+    private ProblemFactChangeSupport() {
+    }
+
+    /**
+     * Replaces the UserGroupIndex of the working solution by a new one built from the current userList.
+     */
+    static void rebuildUserGroupIndex(ScoreDirector<TaskAssigningSolution> scoreDirector) {
+        TaskAssigningSolution solution = scoreDirector.getWorkingSolution();
+        UserGroupIndex oldUserGroupIndex = solution.getUserGroupIndex();
+        scoreDirector.beforeProblemFactRemoved(oldUserGroupIndex);
+        solution.setUserGroupIndex(null);
+        scoreDirector.afterProblemFactRemoved(oldUserGroupIndex);
+        UserGroupIndex newUserGroupIndex = UserGroupIndex.build(solution.getUserList());
+        scoreDirector.beforeProblemFactAdded(newUserGroupIndex);
+        solution.setUserGroupIndex(newUserGroupIndex);
+        scoreDirector.afterProblemFactAdded(newUserGroupIndex);
+    }
+
+    /**
+     * Links the given task assignments in the given order after the anchor, and sets their start and end times in the
+     * same pass. Only the task assignments whose previous element changes are notified, and as their start and end
+     * times are already correct when the variable listeners are triggered, the StartAndEndTimeUpdatingVariableListener
+     * stops at the first task assignment instead of walking the chain once per changed task assignment.
+     *
+     * @param chain all the task assignments of the chain, the ones that stay in place included.
+     */
+    static void relinkChain(ScoreDirector<TaskAssigningSolution> scoreDirector, ChainElement anchor, List<TaskAssignment> chain) {
+        ChainElement previous = anchor;
+        int endTime = 0;
+        for (TaskAssignment taskAssignment : chain) {
+            if (taskAssignment.getPreviousElement() != previous) {
+                scoreDirector.beforeVariableChanged(taskAssignment, PREVIOUS_ELEMENT);
+                taskAssignment.setPreviousElement(previous);
+                scoreDirector.afterVariableChanged(taskAssignment, PREVIOUS_ELEMENT);
+            }
+            int startTime = endTime;
+            endTime = startTime + taskAssignment.getDurationInMinutes();
+            if (!Objects.equals(taskAssignment.getStartTimeInMinutes(), startTime)) {
+                scoreDirector.beforeVariableChanged(taskAssignment, START_TIME_IN_MINUTES);
+                taskAssignment.setStartTimeInMinutes(startTime);
+                scoreDirector.afterVariableChanged(taskAssignment, START_TIME_IN_MINUTES);
+            }
+            if (!Objects.equals(taskAssignment.getEndTimeInMinutes(), endTime)) {
+                scoreDirector.beforeVariableChanged(taskAssignment, END_TIME_IN_MINUTES);
+                taskAssignment.setEndTimeInMinutes(endTime);
+                scoreDirector.afterVariableChanged(taskAssignment, END_TIME_IN_MINUTES);
+            }
+            previous = taskAssignment;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.example.pfc.solver;
+
+import static org.example.pfc.domain.TaskAssignment.PREVIOUS_ELEMENT;
+
+import org.example.pfc.domain.ChainElement;
+import org.example.pfc.domain.TaskAssigningSolution;
+import org.example.pfc.domain.TaskAssignment;
+import org.optaplanner.core.api.score.director.ScoreDirector;
+import org.optaplanner.core.api.solver.ProblemFactChange;
+
+/**
+ * Removes a TaskAssignment from the working solution. The chain the TaskAssignment belongs to, if any, is re-linked
+ * so that the next element points to the previous element of the removed one. If no TaskAssignment with the given
+ * identifier exists an exception is thrown.
+ */
+public class RemoveTaskProblemFactChange implements ProblemFactChange<TaskAssigningSolution> {
+
+    private TaskAssignment taskAssignment;
+
+    public RemoveTaskProblemFactChange(TaskAssignment taskAssignment) {
+        this.taskAssignment = taskAssignment;
+    }
+
+    public TaskAssignment getTaskAssignment() {
+        return taskAssignment;
+    }
+
+    @Override
+    public void doChange(ScoreDirector<TaskAssigningSolution> scoreDirector) {
+        TaskAssigningSolution solution = scoreDirector.getWorkingSolution();
+        TaskAssignment workingTaskAssignment = scoreDirector.lookUpWorkingObjectOrReturnNull(taskAssignment);
+        if (workingTaskAssignment == null) {
+            throw new IllegalStateException(String.format("A task assignment with the given identifier id: %s was not found", taskAssignment.getId()));
+        }
+        ChainElement previousElement = workingTaskAssignment.getPreviousElement();
+        TaskAssignment nextTaskAssignment = workingTaskAssignment.getNextElement();
+        if (nextTaskAssignment != null) {
+            // re-link the chain where the workingTaskAssignment belongs.
+            scoreDirector.beforeVariableChanged(nextTaskAssignment, PREVIOUS_ELEMENT);
+            nextTaskAssignment.setPreviousElement(previousElement);
+            scoreDirector.afterVariableChanged(nextTaskAssignment, PREVIOUS_ELEMENT);
+        }
+        scoreDirector.beforeEntityRemoved(workingTaskAssignment);
+        // Planning entity lists are already cloned by the SolutionCloner, no need to clone.
+        solution.getTaskAssignmentList().remove(workingTaskAssignment);
+        scoreDirector.afterEntityRemoved(workingTaskAssignment);
+        scoreDirector.triggerVariableListeners();
+    }
+}
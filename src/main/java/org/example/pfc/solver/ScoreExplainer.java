@@ -0,0 +1,123 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.example.pfc.solver;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+import org.example.pfc.domain.ChainElement;
+import org.example.pfc.domain.TaskAssigningSolution;
+import org.example.pfc.domain.TaskAssignment;
+import org.example.pfc.domain.User;
+import org.optaplanner.core.api.score.ScoreExplanation;
+import org.optaplanner.core.api.score.ScoreManager;
+import org.optaplanner.core.api.score.buildin.bendablelong.BendableLongScore;
+import org.optaplanner.core.api.score.constraint.Indictment;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.api.solver.event.BestSolutionChangedEvent;
+import org.optaplanner.core.api.solver.event.SolverEventListener;
+
+/**
+ * Explains the score of the published best solution on demand, e.g. why a task was assigned to the PLANNING_USER.
+ * <p>
+ * The solver calculates the score without constraint match tracking (unless the environment mode is asserted), so
+ * solving isn't slowed down by the explanations. When a task or a user explanation is requested, the score of the
+ * current best solution is calculated once more by a fresh score director with constraint match tracking, on the
+ * given executor. The explanation is cached until the next best solution, so any number of requests for the same best
+ * solution cost a single score calculation, and nothing is calculated while no one asks. That calculation always covers
+ * the whole solution, linear in the number of task assignments, no matter how few tasks or users are requested.
+ * <p>
+ * Calculating a score writes it to the solution, and the published best solution is shared with other readers, e.g.
+ * the exporter and the what-if sandbox, so the score is explained on a shallow copy of the best solution. The copy
+ * shares the lists and the entities, which the explanation only reads, so the indictments reference the entities of
+ * the published best solution.
+ * <p>
+ * Register the explainer with {@code solver.addEventListener(explainer)}.
+ */
+public class ScoreExplainer implements SolverEventListener<TaskAssigningSolution> {
+
+    private final ScoreManager<TaskAssigningSolution, BendableLongScore> scoreManager;
+    private final ExecutorService executorService;
+
+    private TaskAssigningSolution bestSolution;
+    private CompletableFuture<ScoreExplanation<TaskAssigningSolution, BendableLongScore>> explanation;
+
+    public ScoreExplainer(SolverFactory<TaskAssigningSolution> solverFactory, ExecutorService executorService) {
+        this.scoreManager = ScoreManager.create(solverFactory);
+        this.executorService = executorService;
+    }
+
+    @Override
+    public void bestSolutionChanged(BestSolutionChangedEvent<TaskAssigningSolution> event) {
+        setBestSolution(event.getNewBestSolution());
+    }
+
+    synchronized void setBestSolution(TaskAssigningSolution bestSolution) {
+        this.bestSolution = bestSolution;
+        // a running explanation of the previous best solution is left to finish for the requests already waiting on it.
+        explanation = null;
+    }
+
+    /**
+     * @return the indictments of the given tasks in the current best solution, by task id. Tasks without any
+     *         constraint match are not included.
+     */
+    public CompletableFuture<Map<String, Indictment<BendableLongScore>>> explainTasks(Collection<String> taskIds) {
+        return explain(TaskAssignment.class, taskIds);
+    }
+
+    /**
+     * @return the indictments of the given users in the current best solution, by user id, e.g. their workload.
+     *         Users without any constraint match are not included.
+     */
+    public CompletableFuture<Map<String, Indictment<BendableLongScore>>> explainUsers(Collection<String> userIds) {
+        return explain(User.class, userIds);
+    }
+
+    private CompletableFuture<Map<String, Indictment<BendableLongScore>>> explain(Class<? extends ChainElement> type,
+            Collection<String> ids) {
+        Set<String> requestedIds = new HashSet<>(ids);
+        return getExplanation().thenApply(scoreExplanation -> {
+            Map<String, Indictment<BendableLongScore>> result = new HashMap<>();
+            for (Map.Entry<Object, Indictment<BendableLongScore>> entry : scoreExplanation.getIndictmentMap().entrySet()) {
+                if (type.isInstance(entry.getKey())) {
+                    String id = ((ChainElement) entry.getKey()).getId();
+                    if (requestedIds.contains(id)) {
+                        result.put(id, entry.getValue());
+                    }
+                }
+            }
+            return result;
+        });
+    }
+
+    private synchronized CompletableFuture<ScoreExplanation<TaskAssigningSolution, BendableLongScore>> getExplanation() {
+        if (bestSolution == null) {
+            throw new IllegalStateException("No best solution was published yet.");
+        }
+        if (explanation == null) {
+            TaskAssigningSolution solution = bestSolution;
+            explanation = CompletableFuture.supplyAsync(() -> scoreManager.explainScore(solution.shallowCopy()),
+                    executorService);
+        }
+        return explanation;
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.example.pfc.solver;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.example.pfc.domain.TaskAssigningSolution;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.solver.SolverConfig;
+
+/**
+ * Shares the SolverFactory instances by key, e.g. one per tenant configuration. Creating a SolverFactory introspects
+ * the domain annotations and compiles the constraint streams of the TaskAssigningConstraintProvider, which is done
+ * once per key instead of once per solver. A SolverFactory is thread-safe, so the cached instances can build solvers
+ * concurrently.
+ */
+public class SolverFactoryCache {
+
+    /**
+     * The key of the factory created from {@link TaskAssigningSolverConfigs#createBaseConfig()}.
+     */
+    public static final String BASE_CONFIG_KEY = "base";
+
+    private final Map<String, SolverFactory<TaskAssigningSolution>> solverFactoryByKey = new ConcurrentHashMap<>();
+
+    /**
+     * @param configSupplier only called when no factory was cached for the key yet. Different configurations must use
+     *        different keys.
+     */
+    public SolverFactory<TaskAssigningSolution> getSolverFactory(String key, Supplier<SolverConfig> configSupplier) {
+        return solverFactoryByKey.computeIfAbsent(key, k -> SolverFactory.create(configSupplier.get()));
+    }
+
+    public SolverFactory<TaskAssigningSolution> getBaseSolverFactory() {
+        return getSolverFactory(BASE_CONFIG_KEY, TaskAssigningSolverConfigs::createBaseConfig);
+    }
+
+    public void evict(String key) {
+        solverFactoryByKey.remove(key);
+    }
+}
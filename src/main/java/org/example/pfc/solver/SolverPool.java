@@ -0,0 +1,144 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.example.pfc.solver;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.example.pfc.domain.TaskAssigningSolution;
+import org.optaplanner.core.api.solver.Solver;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps a number of solvers that were built and warmed up in the background, so that starting a solver doesn't pay
+ * for building it, and the first steps don't run in the interpreter before the JIT compiled the score calculation.
+ * <p>
+ * A solver is warmed up by solving the given warm-up problem, typically a small generated one, for the warm-up time.
+ * Solving writes the score onto the given solution, and may build its missing UserGroupIndex, so every warm-up solves
+ * its own {@link TaskAssigningSolution#shallowCopy() shallow copy} and the warm-up problem itself is never modified.
+ * The entities are not modified either, since the solver plans on a clone of them. A solver is handed out only once: the solver keeps the event listeners and problem fact changes added by its user, so it's
+ * never returned to the pool, and the pool builds a replacement in the background instead. When the pool is empty a
+ * solver is built on the calling thread, without warm-up.
+ */
+public class SolverPool implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SolverPool.class);
+
+    private static final long TERMINATE_POLL_MILLIS = 10;
+
+    private final SolverFactory<TaskAssigningSolution> solverFactory;
+    private final TaskAssigningSolution warmUpProblem;
+    private final long warmUpMillis;
+    private final BlockingQueue<Solver<TaskAssigningSolution>> warmSolvers = new LinkedBlockingQueue<>();
+    // the warm-up solves run on their own threads, so the executor must not be bounded.
+    private final ExecutorService executorService = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "SolverPool");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicLong warmAcquisitions = new AtomicLong();
+    private final AtomicLong coldAcquisitions = new AtomicLong();
+
+    private volatile boolean closed;
+
+    public SolverPool(SolverFactory<TaskAssigningSolution> solverFactory, int size, TaskAssigningSolution warmUpProblem,
+            long warmUpMillis) {
+        this.solverFactory = solverFactory;
+        this.warmUpProblem = warmUpProblem;
+        this.warmUpMillis = warmUpMillis;
+        for (int i = 0; i < size; i++) {
+            executorService.submit(this::buildWarmSolver);
+        }
+    }
+
+    /**
+     * @return a warmed up solver if one is available, otherwise a solver built on the calling thread.
+     * @throws IllegalStateException if the pool was closed.
+     */
+    public Solver<TaskAssigningSolution> acquire() {
+        if (closed) {
+            throw new IllegalStateException("The SolverPool was closed.");
+        }
+        Solver<TaskAssigningSolution> solver = warmSolvers.poll();
+        if (solver == null) {
+            coldAcquisitions.incrementAndGet();
+            return solverFactory.buildSolver();
+        }
+        warmAcquisitions.incrementAndGet();
+        try {
+            executorService.submit(this::buildWarmSolver);
+        } catch (RejectedExecutionException e) {
+            // the pool was closed meanwhile, no replacement is needed anymore.
+        }
+        return solver;
+    }
+
+    /**
+     * @return the number of warmed up solvers ready to be handed out.
+     */
+    public int getAvailableCount() {
+        return warmSolvers.size();
+    }
+
+    public long getWarmAcquisitions() {
+        return warmAcquisitions.get();
+    }
+
+    public long getColdAcquisitions() {
+        return coldAcquisitions.get();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        executorService.shutdownNow();
+        warmSolvers.clear();
+    }
+
+    private void buildWarmSolver() {
+        Solver<TaskAssigningSolution> solver = solverFactory.buildSolver();
+        Future<TaskAssigningSolution> solving;
+        try {
+            solving = executorService.submit(() -> solver.solve(warmUpProblem.shallowCopy()));
+        } catch (RejectedExecutionException e) {
+            // the pool was closed while the solver was built.
+            return;
+        }
+        try {
+            Thread.sleep(warmUpMillis);
+            // solve() resets a previous terminateEarly() when it starts, so it's repeated until the solving ends.
+            while (!solving.isDone()) {
+                solver.terminateEarly();
+                Thread.sleep(TERMINATE_POLL_MILLIS);
+            }
+            solving.get();
+            warmSolvers.add(solver);
+        } catch (InterruptedException e) {
+            solver.terminateEarly();
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            LOGGER.warn("Warming up a solver failed, the solver is discarded.", e);
+        }
+    }
+}
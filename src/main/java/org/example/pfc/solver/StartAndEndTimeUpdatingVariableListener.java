@@ -27,6 +27,10 @@ import org.example.pfc.domain.TaskAssignment;
 import org.optaplanner.core.api.domain.variable.VariableListener;
 import org.optaplanner.core.api.score.director.ScoreDirector;
 
+/**
+ * The listener is stateless and only modifies the entities of the working solution of the given ScoreDirector, so it's
+ * safe for multi-threaded solving where every move thread has its own working solution and ScoreDirector.
+ */
 public class StartAndEndTimeUpdatingVariableListener implements VariableListener<TaskAssigningSolution, TaskAssignment> {
 
     @Override
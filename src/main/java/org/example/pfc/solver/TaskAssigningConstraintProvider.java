@@ -20,8 +20,10 @@ import static org.example.pfc.domain.TaskAssigningSolution.SOFT_LEVELS_SIZE;
 
 import org.example.pfc.domain.ModelConstants;
 import org.example.pfc.domain.TaskAssignment;
+import org.example.pfc.domain.UserGroupIndex;
 import org.optaplanner.core.api.score.buildin.bendablelong.BendableLongScore;
 import org.optaplanner.core.api.score.stream.Constraint;
+import org.optaplanner.core.api.score.stream.ConstraintCollectors;
 import org.optaplanner.core.api.score.stream.ConstraintFactory;
 import org.optaplanner.core.api.score.stream.ConstraintProvider;
 
@@ -38,13 +40,43 @@ public class TaskAssigningConstraintProvider implements ConstraintProvider {
     @Override
     public Constraint[] defineConstraints(ConstraintFactory constraintFactory) {
         return new Constraint[] {
-                planningUserAssignment(constraintFactory)
+                requiredPotentialOwner(constraintFactory),
+                planningUserAssignment(constraintFactory),
+                balanceUserWorkload(constraintFactory)
         };
     }
 
+    /**
+     * A task must be assigned to one of its potential users, to a member of one of its potential groups, or to the
+     * PLANNING_USER. The group membership is resolved by the precomputed UserGroupIndex. A disabled user only keeps its
+     * pinned tasks. The user changes rebuild the UserGroupIndex, which re-evaluates this constraint for every task. The
+     * join never drops the tasks, since a solution without an index builds one on first access.
+     */
+    protected Constraint requiredPotentialOwner(ConstraintFactory constraintFactory) {
+        return constraintFactory.from(TaskAssignment.class)
+                .filter(taskAssignment -> !ModelConstants.IS_PLANNING_USER.test(taskAssignment.getUser().getId()))
+                .join(UserGroupIndex.class)
+                .filter((taskAssignment, userGroupIndex) -> (!taskAssignment.getUser().isEnabled() && !taskAssignment.isPinned())
+                        || !userGroupIndex.isPotentialOwner(taskAssignment.getUser(), taskAssignment.getTask()))
+                .penalize("Required potential owner", hardLevelWeight(0, 1));
+    }
+
     protected Constraint planningUserAssignment(ConstraintFactory constraintFactory) {
         return constraintFactory.from(TaskAssignment.class)
                 .filter(taskAssignment -> ModelConstants.IS_PLANNING_USER.test(taskAssignment.getUser().getId()))
                 .penalize("PlanningUser assignment", softLevelWeight(0, 1));
     }
+
+    /**
+     * Balances the work across the users by penalizing the squared workload of each user. The workload of a user is
+     * maintained incrementally by the groupBy: when a TaskAssignment changes from one user to another only the sums of
+     * these two users are updated, instead of walking their chains on every score calculation.
+     */
+    protected Constraint balanceUserWorkload(ConstraintFactory constraintFactory) {
+        return constraintFactory.from(TaskAssignment.class)
+                .filter(taskAssignment -> !ModelConstants.IS_PLANNING_USER.test(taskAssignment.getUser().getId()))
+                .groupBy(TaskAssignment::getUser, ConstraintCollectors.sum(TaskAssignment::getDurationInMinutes))
+                .penalizeLong("Balance user workload", softLevelWeight(1, 1),
+                        (user, workloadInMinutes) -> (long) workloadInMinutes * workloadInMinutes);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.example.pfc.solver;
+
+import java.util.Arrays;
+
+import org.example.pfc.domain.ChainElement;
+import org.example.pfc.domain.TaskAssigningSolution;
+import org.example.pfc.domain.TaskAssignment;
+import org.optaplanner.core.config.score.director.ScoreDirectorFactoryConfig;
+import org.optaplanner.core.config.solver.SolverConfig;
+
+public class TaskAssigningSolverConfigs {
+
+    /**
+     * System property for configuring the moveThreadCount, e.g. AUTO or 4. Defaults to NONE.
+     */
+    public static final String MOVE_THREAD_COUNT_PROPERTY = "moveThreadCount";
+
+    private TaskAssigningSolverConfigs() {
+    }
+
+    /**
+     * @return the solver configuration with the task assigning domain and constraints, the default phases, and the
+     *         moveThreadCount given by the {@link #MOVE_THREAD_COUNT_PROPERTY}.
+     */
+    public static SolverConfig createBaseConfig() {
+        SolverConfig config = new SolverConfig();
+        config.setMoveThreadCount(System.getProperty(MOVE_THREAD_COUNT_PROPERTY, SolverConfig.MOVE_THREAD_COUNT_NONE));
+        config.setSolutionClass(TaskAssigningSolution.class);
+        config.setEntityClassList(Arrays.asList(ChainElement.class, TaskAssignment.class));
+        config.setScoreDirectorFactoryConfig(new ScoreDirectorFactoryConfig().withConstraintProviderClass(TaskAssigningConstraintProvider.class));
+        return config;
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.example.pfc.solver;
+
+import org.example.pfc.domain.Task;
+import org.example.pfc.domain.TaskAssigningSolution;
+import org.example.pfc.domain.TaskAssignment;
+import org.optaplanner.core.api.score.director.ScoreDirector;
+import org.optaplanner.core.api.solver.ProblemFactChange;
+
+/**
+ * Replaces the Task of an existing TaskAssignment in the working solution. Task instances are shared between the
+ * working solution and the best solutions by the SolutionCloner, so the Task is never modified in place but replaced
+ * by the given one. If no TaskAssignment with the identifier of the given task exists an exception is thrown.
+ */
+public class UpdateTaskProblemFactChange implements ProblemFactChange<TaskAssigningSolution> {
+
+    private TaskAssignment taskAssignment;
+
+    private Task task;
+
+    public UpdateTaskProblemFactChange(TaskAssignment taskAssignment, Task task) {
+        this.taskAssignment = taskAssignment;
+        this.task = task;
+    }
+
+    public TaskAssignment getTaskAssignment() {
+        return taskAssignment;
+    }
+
+    public Task getTask() {
+        return task;
+    }
+
+    @Override
+    public void doChange(ScoreDirector<TaskAssigningSolution> scoreDirector) {
+        TaskAssignment workingTaskAssignment = scoreDirector.lookUpWorkingObjectOrReturnNull(taskAssignment);
+        if (workingTaskAssignment == null) {
+            throw new IllegalStateException(String.format("A task assignment with the given identifier id: %s was not found", taskAssignment.getId()));
+        }
+        scoreDirector.beforeProblemPropertyChanged(workingTaskAssignment);
+        workingTaskAssignment.setTask(task);
+        scoreDirector.afterProblemPropertyChanged(workingTaskAssignment);
+        scoreDirector.triggerVariableListeners();
+    }
+}
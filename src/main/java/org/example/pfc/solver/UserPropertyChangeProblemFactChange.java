@@ -0,0 +1,61 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.example.pfc.solver;
+
+import java.util.HashMap;
+
+import org.example.pfc.domain.TaskAssigningSolution;
+import org.example.pfc.domain.User;
+import org.optaplanner.core.api.score.director.ScoreDirector;
+import org.optaplanner.core.api.solver.ProblemFactChange;
+
+/**
+ * Updates the enabled flag and the attributes of an existing User in the working solution with the values of the given
+ * user, and rebuilds the UserGroupIndex since the groups of the user may have changed. When the user is disabled the
+ * unpinned part of its chain is re-homed, see DisableUserProblemFactChange. If no User with the given identifier exists
+ * an exception is thrown.
+ */
+public class UserPropertyChangeProblemFactChange implements ProblemFactChange<TaskAssigningSolution> {
+
+    private User user;
+
+    public UserPropertyChangeProblemFactChange(User user) {
+        this.user = user;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    @Override
+    public void doChange(ScoreDirector<TaskAssigningSolution> scoreDirector) {
+        User workingUser = scoreDirector.lookUpWorkingObjectOrReturnNull(user);
+        if (workingUser == null) {
+            throw new IllegalStateException(String.format("A user with the given identifier id: %s was not found", user.getId()));
+        }
+        boolean disabled = workingUser.isEnabled() && !user.isEnabled();
+        scoreDirector.beforeProblemPropertyChanged(workingUser);
+        workingUser.setEnabled(user.isEnabled());
+        // the attributes map is shared with the best solution clones, never modify it in place.
+        workingUser.setAttributes(new HashMap<>(user.getAttributes()));
+        scoreDirector.afterProblemPropertyChanged(workingUser);
+        ProblemFactChangeSupport.rebuildUserGroupIndex(scoreDirector);
+        if (disabled) {
+            DisableUserProblemFactChange.rehomeUnpinnedTasks(scoreDirector, workingUser);
+        }
+        scoreDirector.triggerVariableListeners();
+    }
+}
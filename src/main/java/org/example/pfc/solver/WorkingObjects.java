@@ -0,0 +1,54 @@
+/*
+ * Copyright 2021 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.example.pfc.solver;
+
+import org.example.pfc.domain.ModelConstants;
+import org.example.pfc.domain.TaskAssigningSolution;
+import org.example.pfc.domain.TaskAssignment;
+import org.example.pfc.domain.User;
+import org.optaplanner.core.api.score.director.ScoreDirector;
+
+/**
+ * Looks up the working instances of the static ModelConstants singletons. The static instances are never part of a
+ * working solution since the solver clones them, so code running against a ScoreDirector, e.g. a problem fact change,
+ * must use the returned working instance instead of the static one.
+ */
+public class WorkingObjects {
+
+    private WorkingObjects() {
+    }
+
+    /**
+     * @return the working PLANNING_USER, or null if the working solution doesn't include it.
+     */
+    public static User lookUpPlanningUser(ScoreDirector<TaskAssigningSolution> scoreDirector) {
+        return scoreDirector.lookUpWorkingObjectOrReturnNull(ModelConstants.PLANNING_USER);
+    }
+
+    /**
+     * @return the working DUMMY_TASK_ASSIGNMENT, or null if the working solution doesn't include it.
+     */
+    public static TaskAssignment lookUpDummyTaskAssignment(ScoreDirector<TaskAssigningSolution> scoreDirector) {
+        return scoreDirector.lookUpWorkingObjectOrReturnNull(ModelConstants.DUMMY_TASK_ASSIGNMENT);
+    }
+
+    /**
+     * @return the working DUMMY_TASK_ASSIGNMENT_PLANNER_1738, or null if the working solution doesn't include it.
+     */
+    public static TaskAssignment lookUpDummyTaskAssignmentPlanner1738(ScoreDirector<TaskAssigningSolution> scoreDirector) {
+        return scoreDirector.lookUpWorkingObjectOrReturnNull(ModelConstants.DUMMY_TASK_ASSIGNMENT_PLANNER_1738);
+    }
+}
@@ -1,28 +1,42 @@
 package org.example.pfc;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.example.pfc.generator.TaskAssigningFixtures.assign;
+import static org.example.pfc.generator.TaskAssigningFixtures.taskAssignment;
 
 import java.io.File;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.example.pfc.domain.ChainElement;
+import org.example.pfc.domain.ModelConstants;
 import org.example.pfc.domain.Task;
 import org.example.pfc.domain.TaskAssigningSolution;
 import org.example.pfc.domain.TaskAssignment;
+import org.example.pfc.domain.User;
+import org.example.pfc.domain.UserGroupIndex;
 import org.example.pfc.solver.AddTaskProblemFactChange;
-import org.example.pfc.solver.TaskAssigningConstraintProvider;
+import org.example.pfc.solver.AddUserProblemFactChange;
+import org.example.pfc.solver.DisableUserProblemFactChange;
+import org.example.pfc.solver.PinTasksProblemFactChange;
+import org.example.pfc.solver.RemoveTaskProblemFactChange;
+import org.example.pfc.solver.TaskAssigningSolverConfigs;
+import org.example.pfc.solver.UpdateTaskProblemFactChange;
+import org.example.pfc.solver.UserPropertyChangeProblemFactChange;
 import org.junit.jupiter.api.Test;
+import org.optaplanner.core.api.solver.ProblemFactChange;
 import org.optaplanner.core.api.solver.Solver;
 import org.optaplanner.core.api.solver.SolverFactory;
-import org.optaplanner.core.config.score.director.ScoreDirectorFactoryConfig;
 import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.impl.score.director.InnerScoreDirector;
+import org.optaplanner.core.impl.solver.DefaultSolverFactory;
 import org.optaplanner.persistence.xstream.impl.domain.solution.XStreamSolutionFileIO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,14 +52,134 @@ public class ProblemFactChangesTest {
         String taskId = "2000"; //No such task in the data set.
         TaskAssignment taskAssignment = new TaskAssignment(Task.newBuilder().id(taskId).build());
 
-        final Semaphore allChangesWereProduced = new Semaphore(0);
-
         //prepare the list of changes to program
-        List<AddTaskProblemFactChange> programmedChanges = Collections.singletonList(new AddTaskProblemFactChange(taskAssignment));
+        List<ProblemFactChange<TaskAssigningSolution>> programmedChanges = Collections.singletonList(new AddTaskProblemFactChange(taskAssignment));
+        TaskAssigningSolution result = executeProblemFactChanges(solution, programmedChanges);
+        assertThat(result.getTaskAssignmentList()).extracting(TaskAssignment::getId).contains(taskId);
+    }
+
+    @Test
+    void testAddingProblemFactChangesMultiThreaded() {
+        TaskAssigningSolution solution = readTaskAssigningSolution(DATA_SET);
+        String taskId = "2000"; //No such task in the data set.
+        TaskAssignment taskAssignment = new TaskAssignment(Task.newBuilder().id(taskId).build());
+
+        List<ProblemFactChange<TaskAssigningSolution>> programmedChanges = Collections.singletonList(new AddTaskProblemFactChange(taskAssignment));
+        TaskAssigningSolution result = executeProblemFactChanges(solution, programmedChanges, createSolver("2"));
+        assertThat(result.getTaskAssignmentList()).extracting(TaskAssignment::getId).contains(taskId);
+    }
+
+    @Test
+    void testRemovingProblemFactChanges() {
+        TaskAssigningSolution solution = readTaskAssigningSolution(DATA_SET);
+        String taskId = "0";
+        TaskAssignment taskAssignment = new TaskAssignment(Task.newBuilder().id(taskId).build());
+
+        List<ProblemFactChange<TaskAssigningSolution>> programmedChanges = Collections.singletonList(new RemoveTaskProblemFactChange(taskAssignment));
+        TaskAssigningSolution result = executeProblemFactChanges(solution, programmedChanges);
+        assertThat(result.getTaskAssignmentList()).extracting(TaskAssignment::getId).doesNotContain(taskId);
+    }
+
+    @Test
+    void testUpdatingProblemFactChanges() {
+        TaskAssigningSolution solution = readTaskAssigningSolution(DATA_SET);
+        String taskId = "1";
+        Task task = Task.newBuilder().id(taskId).name("Task_1_updated").build();
+        TaskAssignment taskAssignment = new TaskAssignment(task);
+
+        List<ProblemFactChange<TaskAssigningSolution>> programmedChanges = Collections.singletonList(new UpdateTaskProblemFactChange(taskAssignment, task));
+        TaskAssigningSolution result = executeProblemFactChanges(solution, programmedChanges);
+        assertThat(result.getTaskAssignmentList())
+                .filteredOn(assignment -> taskId.equals(assignment.getId()))
+                .extracting(assignment -> assignment.getTask().getName())
+                .containsExactly("Task_1_updated");
+    }
+
+    @Test
+    void testUserPropertyChangeProblemFactChanges() {
+        TaskAssigningSolution solution = readTaskAssigningSolution(DATA_SET);
+        User user = new User("Amy", true, Collections.singletonMap(User.GROUPS_ATTRIBUTE, "Legal,Marketing"));
+
+        List<ProblemFactChange<TaskAssigningSolution>> programmedChanges = Collections.singletonList(new UserPropertyChangeProblemFactChange(user));
+        TaskAssigningSolution result = executeProblemFactChanges(solution, programmedChanges);
+        UserGroupIndex userGroupIndex = result.getUserGroupIndex();
+        assertThat(userGroupIndex.getGroups(userGroupIndex.getUserOrdinal("Amy")).get(userGroupIndex.getGroupOrdinal("Legal"))).isTrue();
+        assertThat(userGroupIndex.getGroupCount()).isEqualTo(2);
+    }
+
+    @Test
+    void testPinTasksProblemFactChanges() {
+        User amy = new User("Amy", true);
+        TaskAssignment a = taskAssignment("A", 1, "Amy");
+        TaskAssignment b = taskAssignment("B", 2, "Amy");
+        TaskAssignment c = taskAssignment("C", 3, "Amy");
+        TaskAssignment d = taskAssignment("D", 4, "Amy");
+        assign(amy, a, b, c, d);
+        b.setPinned(true);
+        TaskAssigningSolution solution = new TaskAssigningSolution(Collections.singletonList(amy), Arrays.asList(a, b, c, d));
+
+        TaskAssigningSolution result = applyProblemFactChanges(solution,
+                Collections.singletonList(new PinTasksProblemFactChange(new HashSet<>(Arrays.asList("D", "A")))));
+        // the already pinned task first, then the tasks to pin in their chain order, then the rest.
+        assertChain(result, "Amy", "B", "A", "D", "C");
+        assertThat(result.getTaskAssignmentList())
+                .filteredOn(TaskAssignment::isPinned)
+                .extracting(TaskAssignment::getId)
+                .containsExactlyInAnyOrder("A", "B", "D");
+        assertThat(Arrays.asList(b, a, d, c)).extracting(TaskAssignment::getStartTimeInMinutes).containsExactly(0, 2, 3, 7);
+        assertThat(Arrays.asList(b, a, d, c)).extracting(TaskAssignment::getEndTimeInMinutes).containsExactly(2, 3, 7, 10);
+        assertThat(Arrays.asList(b, a, d, c)).extracting(TaskAssignment::getUser).containsOnly(amy);
+    }
+
+    @Test
+    void testAddAndDisableUserProblemFactChanges() {
+        User planningUser = new User(ModelConstants.PLANNING_USER.getId(), true);
+        User amy = new User("Amy", true);
+        User beth = new User("Beth", true);
+        User chad = new User("Chad", true);
+        TaskAssignment p1 = taskAssignment("P1", 2, "Amy");
+        TaskAssignment u1 = taskAssignment("U1", 3, "Amy", "Beth", "Chad");
+        TaskAssignment p2 = taskAssignment("P2", 1, "Amy");
+        TaskAssignment u2 = taskAssignment("U2", 4, "Beth", "Chad");
+        TaskAssignment u3 = taskAssignment("U3", 2, "Beth", "Chad");
+        TaskAssignment u4 = taskAssignment("U4", 1, "Amy");
+        TaskAssignment b1 = taskAssignment("B1", 5, "Beth");
+        // a pinned task after an unpinned one, e.g. in a loaded solution, must not move either.
+        assign(amy, p1, u1, p2, u2, u3, u4);
+        p1.setPinned(true);
+        p2.setPinned(true);
+        assign(beth, b1);
+        TaskAssigningSolution solution = new TaskAssigningSolution(new ArrayList<>(Arrays.asList(planningUser, amy, beth, chad)),
+                new ArrayList<>(Arrays.asList(p1, u1, p2, u2, u3, u4, b1)));
+        String userId = "Ivan"; //No such user in the data set.
+
+        TaskAssigningSolution result = applyProblemFactChanges(solution, Arrays.asList(
+                new AddUserProblemFactChange(new User(userId, true, Collections.emptyMap())),
+                new DisableUserProblemFactChange(new User("Amy"))));
+        assertThat(result.getUserList()).extracting(User::getId).contains(userId);
+        assertThat(amy.isEnabled()).isFalse();
+        // the pinned tasks stay with Amy, the unpinned ones go to the least loaded enabled potential owner at the
+        // time: U1 to Chad (0 < 5), U2 to Chad (3 < 5), U3 to Beth (5 < 7), U4 has none and goes to the PLANNING_USER.
+        assertChain(result, "Amy", "P1", "P2");
+        assertChain(result, "Chad", "U1", "U2");
+        assertChain(result, "Beth", "B1", "U3");
+        assertChain(result, planningUser.getId(), "U4");
+        assertChain(result, userId);
+        assertThat(p1.isPinned() && p2.isPinned()).isTrue();
+        assertThat(result.getScore().getHardScore(0)).isZero();
+    }
+
+    private TaskAssigningSolution executeProblemFactChanges(TaskAssigningSolution solution,
+            List<ProblemFactChange<TaskAssigningSolution>> programmedChanges) {
+        return executeProblemFactChanges(solution, programmedChanges, createSolver(SolverConfig.MOVE_THREAD_COUNT_NONE));
+    }
+
+    private TaskAssigningSolution executeProblemFactChanges(TaskAssigningSolution solution,
+            List<ProblemFactChange<TaskAssigningSolution>> programmedChanges, Solver<TaskAssigningSolution> solver) {
+        final Semaphore allChangesWereProduced = new Semaphore(0);
         AtomicInteger scheduledChanges = new AtomicInteger(0);
         int totalProgrammedChanges = programmedChanges.size();
 
-        Solver<TaskAssigningSolution> solver = createSolver();
         solver.addEventListener(event -> {
             if (event.isEveryProblemFactChangeProcessed()) {
                 solver.terminateEarly();
@@ -54,7 +188,7 @@ public class ProblemFactChangesTest {
         });
 
         CompletableFuture.runAsync(() -> {
-            for (AddTaskProblemFactChange programmedChange : programmedChanges) {
+            for (ProblemFactChange<TaskAssigningSolution> programmedChange : programmedChanges) {
                 solver.addProblemFactChange(scoreDirector -> {
                     programmedChange.doChange(scoreDirector);
                     scheduledChanges.incrementAndGet();
@@ -68,26 +202,65 @@ public class ProblemFactChangesTest {
             }
         });
 
-        solver.solve(solution);
+        TaskAssigningSolution result = solver.solve(solution);
         assertThat(scheduledChanges.get()).isEqualTo(totalProgrammedChanges);
+        return result;
     }
 
     private TaskAssigningSolution readTaskAssigningSolution(String resource) {
         File resourceFile = Paths.get(getClass().getResource(resource).getPath()).toFile();
         XStreamSolutionFileIO<TaskAssigningSolution> solutionFileIO = new XStreamSolutionFileIO<>(TaskAssigningSolution.class);
-        return solutionFileIO.read(resourceFile);
+        TaskAssigningSolution solution = solutionFileIO.read(resourceFile);
+        return solution;
+    }
+
+    /**
+     * Applies the changes directly on a score director, without solving, so the resulting chains are deterministic.
+     */
+    private TaskAssigningSolution applyProblemFactChanges(TaskAssigningSolution solution,
+            List<ProblemFactChange<TaskAssigningSolution>> programmedChanges) {
+        DefaultSolverFactory<TaskAssigningSolution> solverFactory = (DefaultSolverFactory<TaskAssigningSolution>) SolverFactory
+                .<TaskAssigningSolution> create(TaskAssigningSolverConfigs.createBaseConfig());
+        InnerScoreDirector<TaskAssigningSolution, ?> scoreDirector = solverFactory.getScoreDirectorFactory().buildScoreDirector();
+        try {
+            scoreDirector.setWorkingSolution(solution);
+            for (ProblemFactChange<TaskAssigningSolution> programmedChange : programmedChanges) {
+                programmedChange.doChange(scoreDirector);
+            }
+            scoreDirector.calculateScore();
+            return scoreDirector.getWorkingSolution();
+        } finally {
+            scoreDirector.close();
+        }
     }
 
-    private SolverConfig createBaseConfig() {
-        SolverConfig config = new SolverConfig();
-        config.setSolutionClass(TaskAssigningSolution.class);
-        config.setEntityClassList(Arrays.asList(ChainElement.class, TaskAssignment.class));
-        config.setScoreDirectorFactoryConfig(new ScoreDirectorFactoryConfig().withConstraintProviderClass(TaskAssigningConstraintProvider.class));
-        return config;
+    /**
+     * Asserts the chain of the user, following the nextElement shadow variables, and that the previousElement, user,
+     * start and end times of every element are consistent with it.
+     */
+    private static void assertChain(TaskAssigningSolution solution, String userId, String... taskIds) {
+        User user = solution.getUserList().stream()
+                .filter(candidate -> userId.equals(candidate.getId()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("User not found: " + userId));
+        List<String> chain = new ArrayList<>();
+        ChainElement previous = user;
+        int endTime = 0;
+        for (TaskAssignment next = user.getNextElement(); next != null; next = next.getNextElement()) {
+            chain.add(next.getId());
+            assertThat(next.getPreviousElement()).isSameAs(previous);
+            assertThat(next.getUser()).isSameAs(user);
+            assertThat(next.getStartTimeInMinutes()).isEqualTo(endTime);
+            endTime += next.getDurationInMinutes();
+            assertThat(next.getEndTimeInMinutes()).isEqualTo(endTime);
+            previous = next;
+        }
+        assertThat(chain).as("chain of %s", userId).containsExactly(taskIds);
     }
 
-    private Solver<TaskAssigningSolution> createSolver() {
-        SolverConfig config = createBaseConfig();
+    private Solver<TaskAssigningSolution> createSolver(String moveThreadCount) {
+        SolverConfig config = TaskAssigningSolverConfigs.createBaseConfig();
+        config.setMoveThreadCount(moveThreadCount);
         SolverFactory<TaskAssigningSolution> solverFactory = SolverFactory.create(config);
         return solverFactory.buildSolver();
     }
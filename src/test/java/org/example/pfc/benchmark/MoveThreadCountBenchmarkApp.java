@@ -0,0 +1,49 @@
+package org.example.pfc.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.optaplanner.benchmark.api.PlannerBenchmark;
+import org.optaplanner.benchmark.api.PlannerBenchmarkFactory;
+import org.optaplanner.benchmark.config.PlannerBenchmarkConfig;
+import org.optaplanner.benchmark.config.SolverBenchmarkConfig;
+import org.optaplanner.core.config.constructionheuristic.ConstructionHeuristicType;
+import org.optaplanner.core.config.solver.SolverConfig;
+
+/**
+ * Benchmarks the score calculation speed of multi-threaded solving with 1, 2, 4, 8 and 16 move threads, next to the
+ * single-threaded solver as a baseline. The solver benchmarks run one at a time so they don't compete for the CPUs.
+ * <pre>
+ * mvn test-compile exec:java -Pbenchmark -Dbenchmark.mainClass=org.example.pfc.benchmark.MoveThreadCountBenchmarkApp
+ * </pre>
+ * See TaskAssigningBenchmarkApp for the other properties.
+ */
+public class MoveThreadCountBenchmarkApp {
+
+    private static final int[] MOVE_THREAD_COUNTS = { 1, 2, 4, 8, 16 };
+
+    public static void main(String[] args) {
+        String dataSets = System.getProperty(TaskAssigningBenchmarkApp.PROPERTY_PREFIX + "dataSets", "100x1000,500x5000");
+        long secondsSpentLimit = Long.getLong(TaskAssigningBenchmarkApp.PROPERTY_PREFIX + "secondsSpentLimit", 60);
+
+        PlannerBenchmarkConfig benchmarkConfig = TaskAssigningBenchmarkApp.createBenchmarkConfig(secondsSpentLimit);
+        benchmarkConfig.setParallelBenchmarkCount("1");
+        List<SolverBenchmarkConfig> solverBenchmarkConfigList = new ArrayList<>();
+        solverBenchmarkConfigList.add(createSolverBenchmarkConfig("Single threaded", SolverConfig.MOVE_THREAD_COUNT_NONE));
+        for (int moveThreadCount : MOVE_THREAD_COUNTS) {
+            solverBenchmarkConfigList.add(createSolverBenchmarkConfig(moveThreadCount + " move threads", Integer.toString(moveThreadCount)));
+        }
+        benchmarkConfig.setSolverBenchmarkConfigList(solverBenchmarkConfigList);
+        PlannerBenchmark benchmark = PlannerBenchmarkFactory.create(benchmarkConfig)
+                .buildPlannerBenchmark(TaskAssigningBenchmarkApp.generateDataSets(dataSets));
+        benchmark.benchmarkAndShowReportInBrowser();
+    }
+
+    private static SolverBenchmarkConfig createSolverBenchmarkConfig(String name, String moveThreadCount) {
+        SolverBenchmarkConfig solverBenchmarkConfig = TaskAssigningBenchmarkApp.createSolverBenchmarkConfig(name,
+                ConstructionHeuristicType.FIRST_FIT, TaskAssigningBenchmarkApp.lateAcceptance(200),
+                TaskAssigningBenchmarkApp.changeAndSwap());
+        solverBenchmarkConfig.getSolverConfig().setMoveThreadCount(moveThreadCount);
+        return solverBenchmarkConfig;
+    }
+}
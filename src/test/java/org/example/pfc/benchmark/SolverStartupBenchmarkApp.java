@@ -0,0 +1,90 @@
+package org.example.pfc.benchmark;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.example.pfc.domain.TaskAssigningSolution;
+import org.example.pfc.generator.TaskAssigningSolutionGenerator;
+import org.example.pfc.solver.SolverFactoryCache;
+import org.example.pfc.solver.SolverPool;
+import org.example.pfc.solver.TaskAssigningSolverConfigs;
+import org.optaplanner.core.api.solver.Solver;
+import org.optaplanner.core.api.solver.SolverFactory;
+
+/**
+ * Compares the time to the first best solution of a cold start, where the SolverFactory is created and the solver is
+ * built on demand, with a warm start, where the SolverFactory comes from the SolverFactoryCache and the solver from a
+ * warmed up SolverPool.
+ * <pre>
+ * mvn test-compile exec:java -Pbenchmark -Dbenchmark.mainClass=org.example.pfc.benchmark.SolverStartupBenchmarkApp
+ *     [-Dstartup.rounds=10] [-Dstartup.users=100] [-Dstartup.tasks=1000] [-Dstartup.warmUpMillis=5000]
+ * </pre>
+ * The first cold start of the JVM also pays for the class loading, so it's reported apart from the following ones.
+ */
+public class SolverStartupBenchmarkApp {
+
+    public static final String PROPERTY_PREFIX = "startup.";
+
+    private static final long SEED = 37;
+
+    public static void main(String[] args) throws InterruptedException {
+        int rounds = Integer.getInteger(PROPERTY_PREFIX + "rounds", 10);
+        int userCount = Integer.getInteger(PROPERTY_PREFIX + "users", 100);
+        int taskCount = Integer.getInteger(PROPERTY_PREFIX + "tasks", 1000);
+        long warmUpMillis = Long.getLong(PROPERTY_PREFIX + "warmUpMillis", 5000);
+
+        TaskAssigningSolutionGenerator generator = new TaskAssigningSolutionGenerator(SEED);
+        TaskAssigningSolution problem = generator.generate(userCount, taskCount);
+        TaskAssigningSolution warmUpProblem = generator.generate(Math.max(1, userCount / 10), Math.max(1, taskCount / 10));
+
+        System.out.printf("%-12s %5s %22s%n", "start", "round", "first best solution ms");
+        long firstColdMillis = coldStart(problem);
+        System.out.printf("%-12s %5d %22d%n", "cold (JVM)", 0, firstColdMillis);
+        long coldTotalMillis = 0;
+        for (int round = 1; round <= rounds; round++) {
+            long millis = coldStart(problem);
+            coldTotalMillis += millis;
+            System.out.printf("%-12s %5d %22d%n", "cold", round, millis);
+        }
+
+        SolverFactoryCache solverFactoryCache = new SolverFactoryCache();
+        try (SolverPool solverPool = new SolverPool(solverFactoryCache.getBaseSolverFactory(), 1, warmUpProblem, warmUpMillis)) {
+            long warmTotalMillis = 0;
+            for (int round = 1; round <= rounds; round++) {
+                // measures the warm start only, not the time the pool needs to replace the previous solver.
+                while (solverPool.getAvailableCount() == 0) {
+                    Thread.sleep(100);
+                }
+                long startNanos = System.nanoTime();
+                long millis = timeToFirstBestSolution(solverPool.acquire(), problem, startNanos);
+                warmTotalMillis += millis;
+                System.out.printf("%-12s %5d %22d%n", "warm", round, millis);
+            }
+            System.out.println();
+            System.out.printf("Average cold start: %d ms%n", coldTotalMillis / rounds);
+            System.out.printf("Average warm start: %d ms%n", warmTotalMillis / rounds);
+        }
+    }
+
+    private static long coldStart(TaskAssigningSolution problem) {
+        long startNanos = System.nanoTime();
+        Solver<TaskAssigningSolution> solver = SolverFactory.<TaskAssigningSolution> create(TaskAssigningSolverConfigs.createBaseConfig())
+                .buildSolver();
+        return timeToFirstBestSolution(solver, problem, startNanos);
+    }
+
+    /**
+     * @return the milliseconds from the given start to the first best solution, the solving is terminated there.
+     */
+    private static long timeToFirstBestSolution(Solver<TaskAssigningSolution> solver, TaskAssigningSolution problem,
+            long startNanos) {
+        AtomicLong firstBestSolutionNanos = new AtomicLong();
+        solver.addEventListener(event -> {
+            if (firstBestSolutionNanos.compareAndSet(0, System.nanoTime())) {
+                solver.terminateEarly();
+            }
+        });
+        solver.solve(problem);
+        long endNanos = firstBestSolutionNanos.get() != 0 ? firstBestSolutionNanos.get() : System.nanoTime();
+        return (endNanos - startNanos) / 1_000_000;
+    }
+}
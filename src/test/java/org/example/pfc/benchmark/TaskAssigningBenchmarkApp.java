@@ -0,0 +1,172 @@
+package org.example.pfc.benchmark;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.example.pfc.domain.TaskAssigningSolution;
+import org.example.pfc.generator.TaskAssigningSolutionGenerator;
+import org.example.pfc.solver.TaskAssigningSolverConfigs;
+import org.optaplanner.benchmark.api.PlannerBenchmark;
+import org.optaplanner.benchmark.api.PlannerBenchmarkFactory;
+import org.optaplanner.benchmark.config.PlannerBenchmarkConfig;
+import org.optaplanner.benchmark.config.ProblemBenchmarksConfig;
+import org.optaplanner.benchmark.config.SolverBenchmarkConfig;
+import org.optaplanner.benchmark.config.statistic.ProblemStatisticType;
+import org.optaplanner.core.config.constructionheuristic.ConstructionHeuristicPhaseConfig;
+import org.optaplanner.core.config.constructionheuristic.ConstructionHeuristicType;
+import org.optaplanner.core.config.heuristic.selector.move.MoveSelectorConfig;
+import org.optaplanner.core.config.heuristic.selector.move.composite.UnionMoveSelectorConfig;
+import org.optaplanner.core.config.heuristic.selector.move.generic.ChangeMoveSelectorConfig;
+import org.optaplanner.core.config.heuristic.selector.move.generic.SwapMoveSelectorConfig;
+import org.optaplanner.core.config.heuristic.selector.move.generic.chained.SubChainChangeMoveSelectorConfig;
+import org.optaplanner.core.config.heuristic.selector.move.generic.chained.SubChainSwapMoveSelectorConfig;
+import org.optaplanner.core.config.heuristic.selector.move.generic.chained.TailChainSwapMoveSelectorConfig;
+import org.optaplanner.core.config.localsearch.LocalSearchPhaseConfig;
+import org.optaplanner.core.config.localsearch.decider.acceptor.LocalSearchAcceptorConfig;
+import org.optaplanner.core.config.localsearch.decider.forager.LocalSearchForagerConfig;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.config.solver.termination.TerminationConfig;
+
+/**
+ * Benchmarks construction heuristics, local search algorithms, acceptor settings and move selector mixes for the
+ * chained previousElement variable on generated data sets of several sizes. The report, with the best score over time
+ * and the score calculation speed of every configuration, is written to local/benchmarkReport.
+ * <pre>
+ * mvn test-compile exec:java -Pbenchmark [-Dbenchmark.dataSets=20x200,100x1000] [-Dbenchmark.secondsSpentLimit=60]
+ * </pre>
+ * The data sets are given as usersxtasks.
+ */
+public class TaskAssigningBenchmarkApp {
+
+    public static final String PROPERTY_PREFIX = "benchmark.";
+    public static final File BENCHMARK_DIRECTORY = new File("local/benchmarkReport");
+
+    private static final long SEED = 37;
+
+    public static void main(String[] args) {
+        String dataSets = System.getProperty(PROPERTY_PREFIX + "dataSets", "20x200,100x1000,500x5000");
+        long secondsSpentLimit = Long.getLong(PROPERTY_PREFIX + "secondsSpentLimit", 60);
+
+        PlannerBenchmarkConfig benchmarkConfig = createBenchmarkConfig(secondsSpentLimit);
+        benchmarkConfig.setSolverBenchmarkConfigList(createSolverBenchmarkConfigList());
+        PlannerBenchmark benchmark = PlannerBenchmarkFactory.create(benchmarkConfig)
+                .buildPlannerBenchmark(generateDataSets(dataSets));
+        benchmark.benchmarkAndShowReportInBrowser();
+    }
+
+    /**
+     * @return a benchmark configuration for the task assigning domain with the best score and score calculation speed
+     *         statistics, and without solver benchmarks.
+     */
+    static PlannerBenchmarkConfig createBenchmarkConfig(long secondsSpentLimit) {
+        PlannerBenchmarkConfig benchmarkConfig = new PlannerBenchmarkConfig();
+        benchmarkConfig.setBenchmarkDirectory(BENCHMARK_DIRECTORY);
+        // one solver benchmark at a time, so the benchmarks don't compete for the CPU and skew each other's results.
+        benchmarkConfig.setParallelBenchmarkCount("1");
+
+        SolverConfig inheritedSolverConfig = TaskAssigningSolverConfigs.createBaseConfig();
+        inheritedSolverConfig.setTerminationConfig(new TerminationConfig().withSecondsSpentLimit(secondsSpentLimit));
+        ProblemBenchmarksConfig problemBenchmarksConfig = new ProblemBenchmarksConfig();
+        problemBenchmarksConfig.setProblemStatisticTypeList(Arrays.asList(ProblemStatisticType.BEST_SCORE,
+                ProblemStatisticType.SCORE_CALCULATION_SPEED));
+        SolverBenchmarkConfig inheritedSolverBenchmarkConfig = new SolverBenchmarkConfig();
+        inheritedSolverBenchmarkConfig.setSolverConfig(inheritedSolverConfig);
+        inheritedSolverBenchmarkConfig.setProblemBenchmarksConfig(problemBenchmarksConfig);
+        benchmarkConfig.setInheritedSolverBenchmarkConfig(inheritedSolverBenchmarkConfig);
+        return benchmarkConfig;
+    }
+
+    static TaskAssigningSolution[] generateDataSets(String dataSets) {
+        List<TaskAssigningSolution> problems = new ArrayList<>();
+        for (String dataSet : dataSets.split(",")) {
+            String[] size = dataSet.trim().split("x");
+            if (size.length != 2) {
+                throw new IllegalArgumentException(String.format("Invalid data set: \"%s\", expected usersxtasks, e.g. 100x1000", dataSet));
+            }
+            problems.add(new TaskAssigningSolutionGenerator(SEED).generate(Integer.parseInt(size[0]), Integer.parseInt(size[1])));
+        }
+        return problems.toArray(new TaskAssigningSolution[0]);
+    }
+
+    private static List<SolverBenchmarkConfig> createSolverBenchmarkConfigList() {
+        List<SolverBenchmarkConfig> solverBenchmarkConfigList = new ArrayList<>();
+        // construction heuristics
+        solverBenchmarkConfigList.add(createSolverBenchmarkConfig("First Fit, Tabu Search",
+                ConstructionHeuristicType.FIRST_FIT, tabuSearch(7), changeAndSwap()));
+        solverBenchmarkConfigList.add(createSolverBenchmarkConfig("Cheapest Insertion, Tabu Search",
+                ConstructionHeuristicType.CHEAPEST_INSERTION, tabuSearch(7), changeAndSwap()));
+        // local search algorithms and acceptor settings
+        solverBenchmarkConfigList.add(createSolverBenchmarkConfig("First Fit, Tabu Search 13",
+                ConstructionHeuristicType.FIRST_FIT, tabuSearch(13), changeAndSwap()));
+        solverBenchmarkConfigList.add(createSolverBenchmarkConfig("First Fit, Late Acceptance 200",
+                ConstructionHeuristicType.FIRST_FIT, lateAcceptance(200), changeAndSwap()));
+        solverBenchmarkConfigList.add(createSolverBenchmarkConfig("First Fit, Late Acceptance 1000",
+                ConstructionHeuristicType.FIRST_FIT, lateAcceptance(1000), changeAndSwap()));
+        // move selector mixes
+        solverBenchmarkConfigList.add(createSolverBenchmarkConfig("First Fit, Late Acceptance 200, tail chain swap",
+                ConstructionHeuristicType.FIRST_FIT, lateAcceptance(200), union(new ChangeMoveSelectorConfig(),
+                        new SwapMoveSelectorConfig(), new TailChainSwapMoveSelectorConfig())));
+        solverBenchmarkConfigList.add(createSolverBenchmarkConfig("First Fit, Late Acceptance 200, sub chains",
+                ConstructionHeuristicType.FIRST_FIT, lateAcceptance(200), union(new ChangeMoveSelectorConfig(),
+                        new SwapMoveSelectorConfig(), subChainChange(), subChainSwap())));
+        return solverBenchmarkConfigList;
+    }
+
+    static SolverBenchmarkConfig createSolverBenchmarkConfig(String name, ConstructionHeuristicType constructionHeuristicType,
+            LocalSearchPhaseConfig localSearchPhaseConfig, MoveSelectorConfig<?> moveSelectorConfig) {
+        ConstructionHeuristicPhaseConfig constructionHeuristicPhaseConfig = new ConstructionHeuristicPhaseConfig();
+        constructionHeuristicPhaseConfig.setConstructionHeuristicType(constructionHeuristicType);
+        localSearchPhaseConfig.setMoveSelectorConfig(moveSelectorConfig);
+        SolverConfig solverConfig = new SolverConfig();
+        solverConfig.setPhaseConfigList(Arrays.asList(constructionHeuristicPhaseConfig, localSearchPhaseConfig));
+        SolverBenchmarkConfig solverBenchmarkConfig = new SolverBenchmarkConfig();
+        solverBenchmarkConfig.setName(name);
+        solverBenchmarkConfig.setSolverConfig(solverConfig);
+        return solverBenchmarkConfig;
+    }
+
+    static LocalSearchPhaseConfig tabuSearch(int entityTabuSize) {
+        LocalSearchAcceptorConfig acceptorConfig = new LocalSearchAcceptorConfig();
+        acceptorConfig.setEntityTabuSize(entityTabuSize);
+        LocalSearchForagerConfig foragerConfig = new LocalSearchForagerConfig();
+        foragerConfig.setAcceptedCountLimit(1000);
+        return localSearch(acceptorConfig, foragerConfig);
+    }
+
+    static LocalSearchPhaseConfig lateAcceptance(int lateAcceptanceSize) {
+        LocalSearchAcceptorConfig acceptorConfig = new LocalSearchAcceptorConfig();
+        acceptorConfig.setLateAcceptanceSize(lateAcceptanceSize);
+        LocalSearchForagerConfig foragerConfig = new LocalSearchForagerConfig();
+        foragerConfig.setAcceptedCountLimit(1);
+        return localSearch(acceptorConfig, foragerConfig);
+    }
+
+    private static LocalSearchPhaseConfig localSearch(LocalSearchAcceptorConfig acceptorConfig, LocalSearchForagerConfig foragerConfig) {
+        LocalSearchPhaseConfig localSearchPhaseConfig = new LocalSearchPhaseConfig();
+        localSearchPhaseConfig.setAcceptorConfig(acceptorConfig);
+        localSearchPhaseConfig.setForagerConfig(foragerConfig);
+        return localSearchPhaseConfig;
+    }
+
+    static MoveSelectorConfig<?> changeAndSwap() {
+        return union(new ChangeMoveSelectorConfig(), new SwapMoveSelectorConfig());
+    }
+
+    private static MoveSelectorConfig<?> union(MoveSelectorConfig<?>... moveSelectorConfigs) {
+        return new UnionMoveSelectorConfig(new ArrayList<>(Arrays.asList(moveSelectorConfigs)));
+    }
+
+    private static MoveSelectorConfig<?> subChainChange() {
+        SubChainChangeMoveSelectorConfig moveSelectorConfig = new SubChainChangeMoveSelectorConfig();
+        moveSelectorConfig.setSelectReversingMoveToo(true);
+        return moveSelectorConfig;
+    }
+
+    private static MoveSelectorConfig<?> subChainSwap() {
+        SubChainSwapMoveSelectorConfig moveSelectorConfig = new SubChainSwapMoveSelectorConfig();
+        moveSelectorConfig.setSelectReversingMoveToo(true);
+        return moveSelectorConfig;
+    }
+}
@@ -0,0 +1,93 @@
+package org.example.pfc.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.example.pfc.domain.TaskAssigningSolution;
+import org.example.pfc.domain.User;
+import org.example.pfc.generator.TaskAssigningSolutionGenerator;
+import org.example.pfc.simulation.WhatIfSandbox;
+import org.example.pfc.solver.DisableUserProblemFactChange;
+import org.example.pfc.solver.TaskAssigningSolverConfigs;
+import org.optaplanner.core.api.solver.Solver;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.config.solver.termination.TerminationConfig;
+
+/**
+ * Measures the peak heap used by 1, 2, 4 and 8 concurrent what-if simulations on the same best solution, each one
+ * disabling another user.
+ * <pre>
+ * mvn test-compile exec:java -Pbenchmark -Dbenchmark.mainClass=org.example.pfc.benchmark.WhatIfMemoryBenchmarkApp
+ *     [-Dwhatif.users=500] [-Dwhatif.tasks=10000] [-Dwhatif.timeLimitMillis=5000]
+ * </pre>
+ * The heap is sampled every 10 ms on top of the heap used after a full GC before the simulations start. The samples
+ * include garbage not collected yet, so the reported peak is an upper bound of what the simulations retain.
+ */
+public class WhatIfMemoryBenchmarkApp {
+
+    public static final String PROPERTY_PREFIX = "whatif.";
+
+    private static final long SEED = 37;
+    private static final int[] CONCURRENT_SIMULATIONS = { 1, 2, 4, 8 };
+    private static final long SAMPLE_MILLIS = 10;
+
+    public static void main(String[] args) throws Exception {
+        int userCount = Integer.getInteger(PROPERTY_PREFIX + "users", 500);
+        int taskCount = Integer.getInteger(PROPERTY_PREFIX + "tasks", 10000);
+        long timeLimitMillis = Long.getLong(PROPERTY_PREFIX + "timeLimitMillis", 5000);
+
+        TaskAssigningSolution bestSolution = solve(new TaskAssigningSolutionGenerator(SEED).generate(userCount, taskCount),
+                timeLimitMillis);
+        MemoryMXBean memoryMXBean = ManagementFactory.getMemoryMXBean();
+
+        System.out.printf("%-12s %18s %22s%n", "simulations", "peak heap delta MB", "per simulation MB");
+        for (int simulationCount : CONCURRENT_SIMULATIONS) {
+            try (WhatIfSandbox sandbox = new WhatIfSandbox(timeLimitMillis, simulationCount)) {
+                System.gc();
+                long baselineBytes = memoryMXBean.getHeapMemoryUsage().getUsed();
+                AtomicLong peakBytes = new AtomicLong(baselineBytes);
+                AtomicBoolean sampling = new AtomicBoolean(true);
+                Thread sampler = new Thread(() -> {
+                    while (sampling.get()) {
+                        peakBytes.accumulateAndGet(memoryMXBean.getHeapMemoryUsage().getUsed(), Math::max);
+                        try {
+                            Thread.sleep(SAMPLE_MILLIS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                    }
+                }, "WhatIfMemoryBenchmarkApp-sampler");
+                sampler.setDaemon(true);
+                sampler.start();
+
+                List<CompletableFuture<?>> simulations = new ArrayList<>();
+                for (int i = 0; i < simulationCount; i++) {
+                    User user = new User(TaskAssigningSolutionGenerator.USER_ID_PREFIX + (i % userCount));
+                    simulations.add(sandbox.simulate(bestSolution,
+                            Collections.singletonList(new DisableUserProblemFactChange(user))));
+                }
+                CompletableFuture.allOf(simulations.toArray(new CompletableFuture[0])).get();
+                sampling.set(false);
+                sampler.join();
+
+                double deltaMegabytes = (peakBytes.get() - baselineBytes) / (1024.0 * 1024.0);
+                System.out.printf("%-12d %18.1f %22.1f%n", simulationCount, deltaMegabytes, deltaMegabytes / simulationCount);
+            }
+        }
+    }
+
+    private static TaskAssigningSolution solve(TaskAssigningSolution problem, long timeLimitMillis) {
+        SolverConfig config = TaskAssigningSolverConfigs.createBaseConfig();
+        config.setTerminationConfig(new TerminationConfig().withMillisecondsSpentLimit(timeLimitMillis));
+        Solver<TaskAssigningSolution> solver = SolverFactory.<TaskAssigningSolution> create(config).buildSolver();
+        return solver.solve(problem);
+    }
+}
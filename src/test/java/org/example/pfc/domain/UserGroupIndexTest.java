@@ -0,0 +1,134 @@
+package org.example.pfc.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.example.pfc.generator.TaskAssigningFixtures.task;
+import static org.example.pfc.generator.TaskAssigningFixtures.user;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+public class UserGroupIndexTest {
+
+    @Test
+    void testBuildNumbersUsersByPosition() {
+        List<User> userList = Arrays.asList(user("Amy", "Legal"), user("Beth", "Marketing,Legal"), user("Chad", null));
+        UserGroupIndex userGroupIndex = UserGroupIndex.build(userList);
+
+        assertThat(userList).extracting(user -> userGroupIndex.getUserOrdinal(user.getId())).containsExactly(0, 1, 2);
+        assertThat(userGroupIndex.getUserOrdinal("Dan")).isEqualTo(-1);
+        assertThat(userGroupIndex.getGroups(1).cardinality()).isEqualTo(2);
+        assertThat(userGroupIndex.getMembers(userGroupIndex.getGroupOrdinal("Legal")).cardinality()).isEqualTo(2);
+    }
+
+    @Test
+    void testIsPotentialOwner() {
+        List<User> userList = Arrays.asList(user("Amy", "Legal"), user("Beth", "Marketing"), user("Chad", null));
+        UserGroupIndex userGroupIndex = UserGroupIndex.build(userList);
+        Task task = task("1", "Marketing", "Unknown");
+        Task userTask = Task.newBuilder().id("2").potentialUsers(Collections.singleton("Chad")).build();
+
+        assertThat(userGroupIndex.isPotentialOwner(userList.get(0), task)).isFalse();
+        assertThat(userGroupIndex.isPotentialOwner(userList.get(1), task)).isTrue();
+        assertThat(userGroupIndex.isPotentialOwner(userList.get(2), task)).isFalse();
+        assertThat(userGroupIndex.isPotentialOwner(userList.get(2), userTask)).isTrue();
+        assertThat(userGroupIndex.isPotentialOwner(new User("Dan"), task)).isFalse();
+    }
+
+    @Test
+    void testPotentialGroupsAreResolvedPerIndex() {
+        User amy = user("Amy", "Legal");
+        User beth = user("Beth", "Marketing");
+        Task task = task("1", "Marketing");
+        UserGroupIndex userGroupIndex = UserGroupIndex.build(Arrays.asList(amy, beth));
+        assertThat(userGroupIndex.getPotentialGroups(task)).isSameAs(userGroupIndex.getPotentialGroups(task));
+        // tasks with the same potential groups share the resolved groups.
+        Task otherTask = Task.newBuilder().id("2").potentialGroups(new HashSet<>(Arrays.asList("Marketing"))).build();
+        assertThat(userGroupIndex.getPotentialGroups(otherTask)).isSameAs(userGroupIndex.getPotentialGroups(task));
+        assertThat(userGroupIndex.isPotentialOwner(beth, task)).isTrue();
+
+        // a rebuilt index numbers the groups differently, the task groups are resolved again.
+        beth.setAttributes(Collections.singletonMap(User.GROUPS_ATTRIBUTE, "Legal"));
+        amy.setAttributes(Collections.singletonMap(User.GROUPS_ATTRIBUTE, "Marketing"));
+        UserGroupIndex rebuiltIndex = UserGroupIndex.build(Arrays.asList(amy, beth));
+        assertThat(rebuiltIndex.isPotentialOwner(amy, task)).isTrue();
+        assertThat(rebuiltIndex.isPotentialOwner(beth, task)).isFalse();
+        assertThat(userGroupIndex.isPotentialOwner(beth, task)).isTrue();
+    }
+
+    @Test
+    void testChangedPotentialGroupsAreResolvedAgain() {
+        User amy = user("Amy", "Legal");
+        UserGroupIndex userGroupIndex = UserGroupIndex.build(Collections.singletonList(amy));
+        Task task = task("1", "Marketing");
+        assertThat(userGroupIndex.isPotentialOwner(amy, task)).isFalse();
+
+        task.getPotentialGroups().add("Legal");
+        assertThat(userGroupIndex.isPotentialOwner(amy, task)).isTrue();
+    }
+
+    @Test
+    void testUserSharedByTwoIndexes() {
+        User amy = user("Amy", "Legal");
+        User beth = user("Beth", "Marketing");
+        UserGroupIndex firstIndex = UserGroupIndex.build(Arrays.asList(amy, beth));
+        UserGroupIndex secondIndex = UserGroupIndex.build(Collections.singletonList(beth));
+        Task task = task("1", "Marketing");
+
+        assertThat(firstIndex.getUserOrdinal("Beth")).isEqualTo(1);
+        assertThat(secondIndex.getUserOrdinal("Beth")).isZero();
+        assertThat(firstIndex.isPotentialOwner(beth, task)).isTrue();
+        assertThat(firstIndex.isPotentialOwner(amy, task)).isFalse();
+        assertThat(secondIndex.isPotentialOwner(beth, task)).isTrue();
+    }
+
+    @Test
+    void testIndexesOverOverlappingUsersDontInterfere() {
+        User amy = user("Amy", "Legal");
+        User beth = user("Beth", "Marketing");
+        User chad = user("Chad", "Legal");
+        Map<String, Object> bethAttributes = beth.getAttributes();
+        Task task = task("1", "Legal");
+        Set<String> potentialGroups = task.getPotentialGroups();
+
+        UserGroupIndex firstIndex = UserGroupIndex.build(Arrays.asList(ModelConstants.PLANNING_USER, amy, beth));
+        assertThat(firstIndex.isPotentialOwner(amy, task)).isTrue();
+        UserGroupIndex secondIndex = UserGroupIndex.build(Arrays.asList(chad, beth, amy, ModelConstants.PLANNING_USER));
+        assertThat(secondIndex.isPotentialOwner(chad, task)).isTrue();
+
+        // building and querying the second index left the ordinals of the first one unchanged, and the other way around.
+        assertThat(Arrays.asList(ModelConstants.PLANNING_USER, amy, beth))
+                .extracting(user -> firstIndex.getUserOrdinal(user.getId()))
+                .containsExactly(0, 1, 2);
+        assertThat(Arrays.asList(chad, beth, amy, ModelConstants.PLANNING_USER))
+                .extracting(user -> secondIndex.getUserOrdinal(user.getId()))
+                .containsExactly(0, 1, 2, 3);
+        assertThat(firstIndex.getUserOrdinal("Chad")).isEqualTo(-1);
+        assertThat(firstIndex.isPotentialOwner(chad, task)).isFalse();
+        assertThat(firstIndex.isPotentialOwner(beth, task)).isFalse();
+        assertThat(secondIndex.isPotentialOwner(amy, task)).isTrue();
+
+        // neither index modified the shared users nor the task.
+        assertThat(beth.getAttributes()).isSameAs(bethAttributes)
+                .containsExactly(entry(User.GROUPS_ATTRIBUTE, "Marketing"));
+        assertThat(task.getPotentialGroups()).isSameAs(potentialGroups).containsExactly("Legal");
+    }
+
+    @Test
+    void testSolutionWithoutIndexBuildsIt() {
+        TaskAssigningSolution solution = new TaskAssigningSolution();
+        solution.setUserList(Arrays.asList(user("Amy", "Legal"), user("Beth", "Marketing")));
+        solution.setTaskAssignmentList(Collections.emptyList());
+
+        UserGroupIndex userGroupIndex = solution.getUserGroupIndex();
+        assertThat(userGroupIndex).isNotNull();
+        assertThat(solution.getUserGroupIndex()).isSameAs(userGroupIndex);
+        assertThat(userGroupIndex.getUserOrdinal("Beth")).isEqualTo(1);
+    }
+}
@@ -0,0 +1,239 @@
+package org.example.pfc.export;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.example.pfc.generator.TaskAssigningFixtures.assign;
+import static org.example.pfc.generator.TaskAssigningFixtures.score;
+import static org.example.pfc.generator.TaskAssigningFixtures.taskAssignment;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.example.pfc.domain.TaskAssigningSolution;
+import org.example.pfc.domain.TaskAssignment;
+import org.example.pfc.domain.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class BestSolutionExportTest {
+
+    private static final long MAX_SEGMENT_BYTES = 1024 * 1024;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testRecordRoundTrip() throws IOException {
+        ExportedAssignment assigned = new ExportedAssignment("1", "Amy", "Amy", true, 0, 10);
+        ExportedAssignment unassigned = new ExportedAssignment("2", null, null, false, null, null);
+        ExportRecord record = new ExportRecord(ExportRecord.Type.DELTA, 7, 1000, "[0/0]hard/[-1/0/0/0/0/0]soft",
+                Arrays.asList(assigned, unassigned), Arrays.asList("3", "4"));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            assertThat(record.writeTo(out)).isEqualTo(bytes.size());
+        }
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        ExportRecord read = ExportRecord.readFrom(in);
+        assertThat(read.getType()).isEqualTo(ExportRecord.Type.DELTA);
+        assertThat(read.getSequence()).isEqualTo(7);
+        assertThat(read.getTimestampMillis()).isEqualTo(1000);
+        assertThat(read.getScore()).isEqualTo("[0/0]hard/[-1/0/0/0/0/0]soft");
+        assertThat(read.getChangedAssignments()).containsExactly(assigned, unassigned);
+        assertThat(read.getRemovedTaskIds()).containsExactly("3", "4");
+        assertThat(ExportRecord.readFrom(in)).isNull();
+    }
+
+    @Test
+    void testFullAndDeltaRecords() throws Exception {
+        User amy = new User("Amy", true);
+        TaskAssignment task1 = taskAssignment("1", 10);
+        TaskAssignment task2 = taskAssignment("2", 10);
+        TaskAssigningSolution first = solution(Collections.singletonList(amy), Arrays.asList(task1, task2), -1);
+        assign(amy, task1);
+        // the published best solutions are never modified, so the second one is made of new instances.
+        User amy2 = new User("Amy", true);
+        TaskAssignment task2Assigned = taskAssignment("2", 10);
+        TaskAssignment task3Assigned = taskAssignment("3", 10);
+        TaskAssigningSolution second = solution(Collections.singletonList(amy2), Arrays.asList(task2Assigned, task3Assigned), -2);
+        assign(amy2, task2Assigned, task3Assigned);
+
+        try (BestSolutionExporter exporter = new BestSolutionExporter(directory, 16, MAX_SEGMENT_BYTES)) {
+            exporter.export(first);
+            exporter.export(second);
+        }
+
+        List<Path> segments = BestSolutionExportReader.listSegments(directory);
+        assertThat(segments).hasSize(1);
+        List<ExportRecord> records = readRecords(segments.get(0));
+        assertThat(records).extracting(ExportRecord::getType).containsExactly(ExportRecord.Type.FULL, ExportRecord.Type.DELTA);
+        assertThat(records.get(0).getChangedAssignments()).containsExactlyInAnyOrder(
+                new ExportedAssignment("1", "Amy", "Amy", false, 0, 10),
+                new ExportedAssignment("2", null, null, false, null, null));
+        assertThat(records.get(0).getRemovedTaskIds()).isEmpty();
+        // task 1 was removed, task 2 was assigned and task 3 was added.
+        assertThat(records.get(1).getChangedAssignments()).containsExactlyInAnyOrder(
+                new ExportedAssignment("2", "Amy", "Amy", false, 0, 10),
+                new ExportedAssignment("3", "Amy", "2", false, 10, 20));
+        assertThat(records.get(1).getRemovedTaskIds()).containsExactly("1");
+
+        BestSolutionExportReader reader = new BestSolutionExportReader(directory);
+        ExportedState latest = reader.readLatest();
+        assertThat(latest.getSequence()).isEqualTo(2);
+        assertThat(latest.getScore()).isEqualTo(second.getScore().toString());
+        assertThat(latest.getAssignmentsByTaskId()).containsOnlyKeys("2", "3");
+        assertThat(latest.getAssignmentsByTaskId().get("3").getEndTimeInMinutes()).isEqualTo(20);
+
+        ExportedState atFirst = reader.readAtSequence(1);
+        assertThat(atFirst.getSequence()).isEqualTo(1);
+        assertThat(atFirst.getScore()).isEqualTo(first.getScore().toString());
+        assertThat(atFirst.getAssignmentsByTaskId()).containsOnlyKeys("1", "2");
+        assertThat(atFirst.getAssignmentsByTaskId().get("2").getUserId()).isNull();
+        assertThat(reader.readAtSequence(0)).isNull();
+    }
+
+    @Test
+    void testRollingSegments() throws Exception {
+        // every record exceeds the max segment size, so every record starts a new segment.
+        try (BestSolutionExporter exporter = new BestSolutionExporter(directory, 16, 1)) {
+            for (int i = 1; i <= 3; i++) {
+                User amy = new User("Amy", true);
+                List<TaskAssignment> taskAssignmentList = new ArrayList<>();
+                for (int taskId = 1; taskId <= i; taskId++) {
+                    taskAssignmentList.add(taskAssignment(Integer.toString(taskId), 10));
+                }
+                assign(amy, taskAssignmentList.toArray(new TaskAssignment[0]));
+                exporter.export(solution(Collections.singletonList(amy), taskAssignmentList, -i));
+            }
+        }
+
+        List<Path> segments = BestSolutionExportReader.listSegments(directory);
+        assertThat(segments).extracting(segment -> segment.getFileName().toString())
+                .containsExactly(BestSolutionExporter.segmentFileName(0), BestSolutionExporter.segmentFileName(1),
+                        BestSolutionExporter.segmentFileName(2));
+        for (Path segment : segments) {
+            // every segment can be read without the previous ones.
+            assertThat(readRecords(segment)).extracting(ExportRecord::getType).containsExactly(ExportRecord.Type.FULL);
+        }
+        BestSolutionExportReader reader = new BestSolutionExportReader(directory);
+        assertThat(reader.readLatest().getAssignmentsByTaskId()).containsOnlyKeys("1", "2", "3");
+        assertThat(reader.readAtSequence(2).getAssignmentsByTaskId()).containsOnlyKeys("1", "2");
+    }
+
+    @Test
+    void testReadAt() throws IOException {
+        writeSegment(0,
+                record(ExportRecord.Type.FULL, 1, 1000, Collections.singletonList(new ExportedAssignment("1", null, null, false, null, null)),
+                        Collections.emptyList()),
+                record(ExportRecord.Type.DELTA, 2, 2000, Collections.singletonList(new ExportedAssignment("1", "Amy", "Amy", false, 0, 10)),
+                        Collections.emptyList()),
+                record(ExportRecord.Type.DELTA, 3, 3000, Collections.emptyList(), Collections.singletonList("1")));
+
+        BestSolutionExportReader reader = new BestSolutionExportReader(directory);
+        assertThat(reader.readAt(Instant.ofEpochMilli(999))).isNull();
+        assertThat(reader.readAt(Instant.ofEpochMilli(1000)).getAssignmentsByTaskId().get("1").getUserId()).isNull();
+        ExportedState atSecond = reader.readAt(Instant.ofEpochMilli(2500));
+        assertThat(atSecond.getSequence()).isEqualTo(2);
+        assertThat(atSecond.getTimestamp()).isEqualTo(Instant.ofEpochMilli(2000));
+        assertThat(atSecond.getAssignmentsByTaskId().get("1").getUserId()).isEqualTo("Amy");
+        assertThat(reader.readAt(Instant.ofEpochMilli(3000)).getAssignmentsByTaskId()).isEmpty();
+    }
+
+    @Test
+    void testTruncatedTrailingRecord() throws IOException {
+        Path segment = writeSegment(0,
+                record(ExportRecord.Type.FULL, 1, 1000, Collections.singletonList(new ExportedAssignment("1", null, null, false, null, null)),
+                        Collections.emptyList()),
+                record(ExportRecord.Type.DELTA, 2, 2000, Collections.singletonList(new ExportedAssignment("1", "Amy", "Amy", false, 0, 10)),
+                        Collections.emptyList()));
+        long completeSize = Files.size(segment);
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(segment, StandardOpenOption.APPEND))) {
+            record(ExportRecord.Type.DELTA, 3, 3000, Collections.emptyList(), Collections.singletonList("1")).writeTo(out);
+        }
+        BestSolutionExportReader reader = new BestSolutionExportReader(directory);
+        assertThat(reader.readLatest().getSequence()).isEqualTo(3);
+
+        // the process was killed while writing the content of the last record.
+        truncate(segment, Files.size(segment) - 1);
+        assertThat(reader.readLatest().getSequence()).isEqualTo(2);
+        assertThat(reader.readLatest().getAssignmentsByTaskId().get("1").getUserId()).isEqualTo("Amy");
+        // or while writing its length.
+        truncate(segment, completeSize + 2);
+        assertThat(reader.readLatest().getSequence()).isEqualTo(2);
+    }
+
+    @Test
+    void testSequenceContinuesAfterReopening() throws Exception {
+        User amy = new User("Amy", true);
+        TaskAssignment task1 = taskAssignment("1", 10);
+        assign(amy, task1);
+        try (BestSolutionExporter exporter = new BestSolutionExporter(directory, 16, MAX_SEGMENT_BYTES)) {
+            exporter.export(solution(Collections.singletonList(amy), Collections.singletonList(task1), -1));
+            exporter.export(solution(Collections.singletonList(amy), Collections.singletonList(task1), -2));
+        }
+        try (BestSolutionExporter exporter = new BestSolutionExporter(directory, 16, MAX_SEGMENT_BYTES)) {
+            exporter.export(solution(Collections.singletonList(new User("Amy", true)), Collections.singletonList(taskAssignment("2", 10)), -3));
+        }
+
+        List<Path> segments = BestSolutionExportReader.listSegments(directory);
+        assertThat(segments).hasSize(2);
+        // the reopened exporter starts a new segment with a FULL record, so the task of the first export is gone.
+        List<ExportRecord> records = readRecords(segments.get(1));
+        assertThat(records).extracting(ExportRecord::getType).containsExactly(ExportRecord.Type.FULL);
+        assertThat(records).extracting(ExportRecord::getSequence).containsExactly(3L);
+        BestSolutionExportReader reader = new BestSolutionExportReader(directory);
+        assertThat(reader.readLatest().getSequence()).isEqualTo(3);
+        assertThat(reader.readLatest().getAssignmentsByTaskId()).containsOnlyKeys("2");
+        assertThat(reader.readAtSequence(2).getAssignmentsByTaskId()).containsOnlyKeys("1");
+    }
+
+    private static TaskAssigningSolution solution(List<User> userList, List<TaskAssignment> taskAssignmentList, long softScore) {
+        TaskAssigningSolution solution = new TaskAssigningSolution(userList, taskAssignmentList);
+        solution.setScore(score(0, softScore, 0));
+        return solution;
+    }
+
+    private static ExportRecord record(ExportRecord.Type type, long sequence, long timestampMillis,
+            List<ExportedAssignment> changedAssignments, List<String> removedTaskIds) {
+        return new ExportRecord(type, sequence, timestampMillis, "", changedAssignments, removedTaskIds);
+    }
+
+    private Path writeSegment(int segmentIndex, ExportRecord... records) throws IOException {
+        Path segment = directory.resolve(BestSolutionExporter.segmentFileName(segmentIndex));
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(segment))) {
+            for (ExportRecord record : records) {
+                record.writeTo(out);
+            }
+        }
+        return segment;
+    }
+
+    private static List<ExportRecord> readRecords(Path segment) throws IOException {
+        List<ExportRecord> records = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(segment)))) {
+            ExportRecord record;
+            while ((record = ExportRecord.readFrom(in)) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    private static void truncate(Path file, long size) throws IOException {
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file.toFile(), "rw")) {
+            randomAccessFile.setLength(size);
+        }
+    }
+}
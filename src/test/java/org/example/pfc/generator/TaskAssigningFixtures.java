@@ -0,0 +1,87 @@
+package org.example.pfc.generator;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.example.pfc.domain.ChainElement;
+import org.example.pfc.domain.Task;
+import org.example.pfc.domain.TaskAssigningSolution;
+import org.example.pfc.domain.TaskAssignment;
+import org.example.pfc.domain.User;
+import org.optaplanner.core.api.score.buildin.bendablelong.BendableLongScore;
+
+/**
+ * Hand-made users, tasks, chains and scores for the tests that need a few specific elements rather than a generated
+ * data set, see {@link TaskAssigningSolutionGenerator} for the latter.
+ */
+public final class TaskAssigningFixtures {
+
+    private TaskAssigningFixtures() {
+    }
+
+    /**
+     * @param groups the comma separated groups of the user, or null for none.
+     */
+    public static User user(String id, String groups) {
+        return new User(id, true, groups != null ? Collections.singletonMap(User.GROUPS_ATTRIBUTE, groups) : null);
+    }
+
+    /**
+     * @return a task with the given potential groups, in a modifiable set.
+     */
+    public static Task task(String id, String... potentialGroups) {
+        return Task.newBuilder().id(id).potentialGroups(new HashSet<>(Arrays.asList(potentialGroups))).build();
+    }
+
+    /**
+     * @return an unassigned TaskAssignment for a task with the given potential users, in a modifiable set.
+     */
+    public static TaskAssignment taskAssignment(String id, int durationInMinutes, String... potentialUsers) {
+        return taskAssignment(Task.newBuilder()
+                .id(id)
+                .potentialUsers(new HashSet<>(Arrays.asList(potentialUsers)))
+                .build(), durationInMinutes);
+    }
+
+    /**
+     * @return an unassigned TaskAssignment for the given task.
+     */
+    public static TaskAssignment taskAssignment(Task task, int durationInMinutes) {
+        TaskAssignment taskAssignment = new TaskAssignment(task);
+        taskAssignment.setDurationInMinutes(durationInMinutes);
+        return taskAssignment;
+    }
+
+    /**
+     * Links the given chain to the user and sets the shadow variables, as the solver would. The chain ends after the
+     * given TaskAssignments.
+     */
+    public static void assign(User user, TaskAssignment... chain) {
+        ChainElement previous = user;
+        int startTime = 0;
+        for (TaskAssignment taskAssignment : chain) {
+            taskAssignment.setPreviousElement(previous);
+            previous.setNextElement(taskAssignment);
+            taskAssignment.setUser(user);
+            taskAssignment.setStartTimeInMinutes(startTime);
+            startTime += taskAssignment.getDurationInMinutes();
+            taskAssignment.setEndTimeInMinutes(startTime);
+            previous = taskAssignment;
+        }
+        previous.setNextElement(null);
+    }
+
+    /**
+     * @return a score with the given first hard level, and the given "PlanningUser assignment" and "Balance user
+     *         workload" soft levels. All the other levels are 0.
+     */
+    public static BendableLongScore score(long hardScore, long planningUserSoftScore, long workloadSoftScore) {
+        long[] hardScores = new long[TaskAssigningSolution.HARD_LEVELS_SIZE];
+        hardScores[0] = hardScore;
+        long[] softScores = new long[TaskAssigningSolution.SOFT_LEVELS_SIZE];
+        softScores[0] = planningUserSoftScore;
+        softScores[1] = workloadSoftScore;
+        return BendableLongScore.of(hardScores, softScores);
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.pfc.generator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.example.pfc.domain.ModelConstants;
+import org.example.pfc.domain.Task;
+import org.example.pfc.domain.TaskAssigningSolution;
+import org.example.pfc.domain.TaskAssignment;
+import org.example.pfc.domain.User;
+
+/**
+ * Generates uninitialized TaskAssigningSolution data sets of arbitrary size. The same seed always produces the same
+ * data set. Every user is a member of one or two groups, and every task has either one potential user or one potential
+ * group, so all the tasks can be assigned without breaking hard constraints.
+ */
+public class TaskAssigningSolutionGenerator {
+
+    public static final String USER_ID_PREFIX = "user-";
+    public static final String GROUP_ID_PREFIX = "group-";
+    private static final int USERS_PER_GROUP = 10;
+    private static final int MAX_PRIORITY = 10;
+    private static final int MAX_DURATION_IN_MINUTES = 5;
+
+    private final Random random;
+    private int userCount = 1;
+    private int groupCount = 1;
+
+    public TaskAssigningSolutionGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    public TaskAssigningSolution generate(int userCount, int taskCount) {
+        this.userCount = Math.max(1, userCount);
+        this.groupCount = Math.max(1, userCount / USERS_PER_GROUP);
+        List<User> userList = new ArrayList<>(userCount + 1);
+        for (int i = 0; i < userCount; i++) {
+            userList.add(generateUser(USER_ID_PREFIX + i));
+        }
+        userList.add(ModelConstants.PLANNING_USER);
+        List<TaskAssignment> taskAssignmentList = new ArrayList<>(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            taskAssignmentList.add(generateTaskAssignment(Integer.toString(i)));
+        }
+        return new TaskAssigningSolution(userList, taskAssignmentList);
+    }
+
+    public User generateUser(String userId) {
+        Set<String> groups = new HashSet<>();
+        groups.add(GROUP_ID_PREFIX + random.nextInt(groupCount));
+        if (random.nextBoolean()) {
+            groups.add(GROUP_ID_PREFIX + random.nextInt(groupCount));
+        }
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put(User.GROUPS_ATTRIBUTE, groups);
+        return new User(userId, true, attributes);
+    }
+
+    public TaskAssignment generateTaskAssignment(String taskId) {
+        TaskAssignment taskAssignment = new TaskAssignment(generateTask(taskId));
+        taskAssignment.setDurationInMinutes(1 + random.nextInt(MAX_DURATION_IN_MINUTES));
+        return taskAssignment;
+    }
+
+    public Task generateTask(String taskId) {
+        return Task.newBuilder()
+                .id(taskId)
+                .name("Task_" + taskId)
+                .state("Ready")
+                .priority(Integer.toString(1 + random.nextInt(MAX_PRIORITY)))
+                .potentialUsers(random.nextBoolean()
+                        ? Collections.singleton(USER_ID_PREFIX + random.nextInt(userCount))
+                        : Collections.emptySet())
+                .potentialGroups(Collections.singleton(GROUP_ID_PREFIX + random.nextInt(groupCount)))
+                .build();
+    }
+}
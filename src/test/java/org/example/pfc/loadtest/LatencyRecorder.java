@@ -0,0 +1,45 @@
+package org.example.pfc.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Collects latency samples in nanoseconds and calculates nearest-rank percentiles over all of them.
+ */
+public class LatencyRecorder {
+
+    private long[] samples = new long[1024];
+    private int size = 0;
+
+    public synchronized void record(long latencyNanos) {
+        if (size == samples.length) {
+            samples = Arrays.copyOf(samples, size * 2);
+        }
+        samples[size++] = latencyNanos;
+    }
+
+    public synchronized int getCount() {
+        return size;
+    }
+
+    /**
+     * @param percentile a value in the range (0, 100], e.g. 99.9.
+     * @return the latency in nanoseconds for the given percentile, or 0 when no samples were recorded.
+     */
+    public synchronized long getPercentile(double percentile) {
+        if (size == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100.0 * size);
+        return sorted[Math.max(0, Math.min(size, rank) - 1)];
+    }
+
+    public synchronized long getMax() {
+        long max = 0;
+        for (int i = 0; i < size; i++) {
+            max = Math.max(max, samples[i]);
+        }
+        return max;
+    }
+}
@@ -0,0 +1,172 @@
+package org.example.pfc.loadtest;
+
+/**
+ * Configuration of the ProblemFactChangeLoadTestApp. All the values can be set by system properties, e.g.
+ * -Dloadtest.producers=8 -Dloadtest.changesPerSecond=50.
+ */
+public class LoadTestConfig {
+
+    public static final String PROPERTY_PREFIX = "loadtest.";
+
+    private int userCount = 100;
+    private int taskCount = 1000;
+    private int producerCount = 4;
+    /**
+     * Target rate of each producer thread.
+     */
+    private double changesPerSecond = 10;
+    private int addWeight = 1;
+    private int updateWeight = 1;
+    private int removeWeight = 1;
+    private int durationSeconds = 60;
+    private long seed = 37;
+    /**
+     * Submits the changes through a ProblemFactChangeBatcher with the default ChangeAwareRestartPolicy.
+     */
+    private boolean batching = false;
+
+    private LoadTestConfig() {
+    }
+
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    public static LoadTestConfig fromSystemProperties() {
+        LoadTestConfig defaults = new LoadTestConfig();
+        return newBuilder()
+                .userCount(Integer.getInteger(PROPERTY_PREFIX + "users", defaults.userCount))
+                .taskCount(Integer.getInteger(PROPERTY_PREFIX + "tasks", defaults.taskCount))
+                .producerCount(Integer.getInteger(PROPERTY_PREFIX + "producers", defaults.producerCount))
+                .changesPerSecond(Double.parseDouble(System.getProperty(PROPERTY_PREFIX + "changesPerSecond",
+                        Double.toString(defaults.changesPerSecond))))
+                .addWeight(Integer.getInteger(PROPERTY_PREFIX + "addWeight", defaults.addWeight))
+                .updateWeight(Integer.getInteger(PROPERTY_PREFIX + "updateWeight", defaults.updateWeight))
+                .removeWeight(Integer.getInteger(PROPERTY_PREFIX + "removeWeight", defaults.removeWeight))
+                .durationSeconds(Integer.getInteger(PROPERTY_PREFIX + "durationSeconds", defaults.durationSeconds))
+                .seed(Long.getLong(PROPERTY_PREFIX + "seed", defaults.seed))
+                .batching(Boolean.parseBoolean(System.getProperty(PROPERTY_PREFIX + "batching", Boolean.toString(defaults.batching))))
+                .build();
+    }
+
+    public int getUserCount() {
+        return userCount;
+    }
+
+    public int getTaskCount() {
+        return taskCount;
+    }
+
+    public int getProducerCount() {
+        return producerCount;
+    }
+
+    public double getChangesPerSecond() {
+        return changesPerSecond;
+    }
+
+    public int getAddWeight() {
+        return addWeight;
+    }
+
+    public int getUpdateWeight() {
+        return updateWeight;
+    }
+
+    public int getRemoveWeight() {
+        return removeWeight;
+    }
+
+    public int getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public boolean isBatching() {
+        return batching;
+    }
+
+    @Override
+    public String toString() {
+        return "LoadTestConfig{" +
+                "userCount=" + userCount +
+                ", taskCount=" + taskCount +
+                ", producerCount=" + producerCount +
+                ", changesPerSecond=" + changesPerSecond +
+                ", addWeight=" + addWeight +
+                ", updateWeight=" + updateWeight +
+                ", removeWeight=" + removeWeight +
+                ", durationSeconds=" + durationSeconds +
+                ", seed=" + seed +
+                ", batching=" + batching +
+                '}';
+    }
+
+    public static class Builder {
+
+        private LoadTestConfig config = new LoadTestConfig();
+
+        private Builder() {
+        }
+
+        public LoadTestConfig build() {
+            if (config.addWeight + config.updateWeight + config.removeWeight <= 0) {
+                throw new IllegalArgumentException("At least one of the change weights must be greater than zero.");
+            }
+            return config;
+        }
+
+        public Builder userCount(int userCount) {
+            config.userCount = userCount;
+            return this;
+        }
+
+        public Builder taskCount(int taskCount) {
+            config.taskCount = taskCount;
+            return this;
+        }
+
+        public Builder producerCount(int producerCount) {
+            config.producerCount = producerCount;
+            return this;
+        }
+
+        public Builder changesPerSecond(double changesPerSecond) {
+            config.changesPerSecond = changesPerSecond;
+            return this;
+        }
+
+        public Builder addWeight(int addWeight) {
+            config.addWeight = addWeight;
+            return this;
+        }
+
+        public Builder updateWeight(int updateWeight) {
+            config.updateWeight = updateWeight;
+            return this;
+        }
+
+        public Builder removeWeight(int removeWeight) {
+            config.removeWeight = removeWeight;
+            return this;
+        }
+
+        public Builder durationSeconds(int durationSeconds) {
+            config.durationSeconds = durationSeconds;
+            return this;
+        }
+
+        public Builder seed(long seed) {
+            config.seed = seed;
+            return this;
+        }
+
+        public Builder batching(boolean batching) {
+            config.batching = batching;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package org.example.pfc.loadtest;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+import org.example.pfc.domain.Task;
+import org.example.pfc.domain.TaskAssigningSolution;
+import org.example.pfc.domain.TaskAssignment;
+import org.example.pfc.generator.TaskAssigningSolutionGenerator;
+import org.example.pfc.solver.AddTaskProblemFactChange;
+import org.example.pfc.solver.ChangeAwareRestartPolicy;
+import org.example.pfc.solver.ProblemFactChangeBatcher;
+import org.example.pfc.solver.RemoveTaskProblemFactChange;
+import org.example.pfc.solver.TaskAssigningSolverConfigs;
+import org.example.pfc.solver.UpdateTaskProblemFactChange;
+import org.optaplanner.core.api.score.Score;
+import org.optaplanner.core.api.solver.ProblemFactChange;
+import org.optaplanner.core.api.solver.Solver;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.solver.SolverConfig;
+
+/**
+ * Local load test that runs a number of producer threads submitting a mix of add, update and remove problem fact
+ * changes at a target rate against a running solver on a generated data set.
+ * <p>
+ * The change-to-visibility latency is the time from the submission of a change until the first best solution that
+ * contains it is published. Every batch of changes picked up by the solver is counted as a solver restart. A
+ * growing backlog of submitted but not yet applied changes in the timeline means the solver falls behind.
+ * <p>
+ * See {@link LoadTestConfig} for the available system properties.
+ */
+public class ProblemFactChangeLoadTestApp {
+
+    private static final int MIN_LIVE_TASKS = 2;
+    private static final long DRAIN_TIMEOUT_MILLIS = 30_000;
+
+    private final LoadTestConfig config;
+    private final TaskAssigningSolutionGenerator generator;
+
+    private final Object liveTaskIdsLock = new Object();
+    private final List<String> liveTaskIds = new ArrayList<>();
+    private int nextTaskId;
+
+    private final LatencyRecorder visibilityLatency = new LatencyRecorder();
+    private final Queue<Long> appliedChangeSubmitTimes = new ConcurrentLinkedQueue<>();
+    private final AtomicLong submittedChanges = new AtomicLong();
+    private final AtomicLong appliedChanges = new AtomicLong();
+    private final AtomicLong visibleChanges = new AtomicLong();
+    private final AtomicInteger restarts = new AtomicInteger();
+    private final AtomicBoolean restartInProgress = new AtomicBoolean();
+    private final AtomicReference<Score<?>> bestScore = new AtomicReference<>();
+    private final List<String> timeline = new ArrayList<>();
+
+    public static void main(String[] args) throws InterruptedException {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        new ProblemFactChangeLoadTestApp(config).run(System.out);
+    }
+
+    public ProblemFactChangeLoadTestApp(LoadTestConfig config) {
+        this.config = config;
+        this.generator = new TaskAssigningSolutionGenerator(config.getSeed());
+    }
+
+    public void run(PrintStream out) throws InterruptedException {
+        out.println("Running load test with " + config);
+        TaskAssigningSolution solution = generator.generate(config.getUserCount(), config.getTaskCount());
+        solution.getTaskAssignmentList().forEach(taskAssignment -> liveTaskIds.add(taskAssignment.getId()));
+        nextTaskId = config.getTaskCount();
+
+        SolverConfig solverConfig = TaskAssigningSolverConfigs.createBaseConfig();
+        ProblemFactChangeBatcher batcher = null;
+        if (config.isBatching()) {
+            batcher = new ProblemFactChangeBatcher(ChangeAwareRestartPolicy.newBuilder().build());
+            batcher.applyTo(solverConfig);
+        }
+        Solver<TaskAssigningSolution> solver = SolverFactory.<TaskAssigningSolution> create(solverConfig).buildSolver();
+        Consumer<ProblemFactChange<TaskAssigningSolution>> changeConsumer;
+        if (batcher != null) {
+            batcher.start(solver);
+            changeConsumer = batcher::addProblemFactChange;
+        } else {
+            changeConsumer = solver::addProblemFactChange;
+        }
+        CountDownLatch solverStarted = new CountDownLatch(1);
+        solver.addEventListener(event -> {
+            long now = System.nanoTime();
+            Long submitTime;
+            while ((submitTime = appliedChangeSubmitTimes.poll()) != null) {
+                visibilityLatency.record(now - submitTime);
+                visibleChanges.incrementAndGet();
+            }
+            restartInProgress.set(false);
+            bestScore.set(event.getNewBestScore());
+            solverStarted.countDown();
+        });
+
+        ExecutorService solverExecutor = Executors.newSingleThreadExecutor();
+        solverExecutor.submit(() -> solver.solve(solution));
+        solverStarted.await();
+
+        long startNanos = System.nanoTime();
+        long endNanos = startNanos + TimeUnit.SECONDS.toNanos(config.getDurationSeconds());
+        ExecutorService producerExecutor = Executors.newFixedThreadPool(config.getProducerCount());
+        for (int i = 0; i < config.getProducerCount(); i++) {
+            producerExecutor.submit(() -> produce(changeConsumer, endNanos));
+        }
+        while (System.nanoTime() < endNanos) {
+            Thread.sleep(1000);
+            sampleTimeline(startNanos);
+        }
+        producerExecutor.shutdown();
+        producerExecutor.awaitTermination(1, TimeUnit.MINUTES);
+        if (batcher != null) {
+            batcher.close();
+        }
+
+        long drainDeadline = System.currentTimeMillis() + DRAIN_TIMEOUT_MILLIS;
+        while (visibleChanges.get() < submittedChanges.get() && System.currentTimeMillis() < drainDeadline) {
+            Thread.sleep(100);
+        }
+        sampleTimeline(startNanos);
+        solver.terminateEarly();
+        solverExecutor.shutdown();
+        solverExecutor.awaitTermination(1, TimeUnit.MINUTES);
+        printReport(out, System.nanoTime() - startNanos);
+    }
+
+    private void produce(Consumer<ProblemFactChange<TaskAssigningSolution>> changeConsumer, long endNanos) {
+        long periodNanos = (long) (TimeUnit.SECONDS.toNanos(1) / config.getChangesPerSecond());
+        long nextNanos = System.nanoTime();
+        while (nextNanos < endNanos) {
+            long waitNanos = nextNanos - System.nanoTime();
+            if (waitNanos > 0) {
+                LockSupport.parkNanos(waitNanos);
+            }
+            submitChange(changeConsumer);
+            nextNanos += periodNanos;
+        }
+    }
+
+    private void submitChange(Consumer<ProblemFactChange<TaskAssigningSolution>> changeConsumer) {
+        int totalWeight = config.getAddWeight() + config.getUpdateWeight() + config.getRemoveWeight();
+        int choice = ThreadLocalRandom.current().nextInt(totalWeight);
+        // the changes are submitted while holding the lock to keep the order in the solver queue consistent with
+        // liveTaskIds, e.g. a task is never updated after it was removed.
+        synchronized (liveTaskIdsLock) {
+            ProblemFactChange<TaskAssigningSolution> change;
+            if (choice < config.getAddWeight() || liveTaskIds.size() <= MIN_LIVE_TASKS) {
+                String taskId = Integer.toString(nextTaskId++);
+                change = new AddTaskProblemFactChange(generator.generateTaskAssignment(taskId));
+                liveTaskIds.add(taskId);
+            } else {
+                int index = ThreadLocalRandom.current().nextInt(liveTaskIds.size());
+                String taskId = liveTaskIds.get(index);
+                if (choice < config.getAddWeight() + config.getUpdateWeight()) {
+                    Task task = generator.generateTask(taskId);
+                    change = new UpdateTaskProblemFactChange(new TaskAssignment(task), task);
+                } else {
+                    liveTaskIds.set(index, liveTaskIds.get(liveTaskIds.size() - 1));
+                    liveTaskIds.remove(liveTaskIds.size() - 1);
+                    change = new RemoveTaskProblemFactChange(new TaskAssignment(Task.newBuilder().id(taskId).build()));
+                }
+            }
+            long submitTime = System.nanoTime();
+            changeConsumer.accept(scoreDirector -> {
+                change.doChange(scoreDirector);
+                if (restartInProgress.compareAndSet(false, true)) {
+                    restarts.incrementAndGet();
+                }
+                appliedChanges.incrementAndGet();
+                appliedChangeSubmitTimes.add(submitTime);
+            });
+            submittedChanges.incrementAndGet();
+        }
+    }
+
+    private void sampleTimeline(long startNanos) {
+        long elapsedSeconds = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startNanos);
+        timeline.add(String.format("%6d %10d %10d %10d %10d %9d   %s", elapsedSeconds, submittedChanges.get(),
+                appliedChanges.get(), visibleChanges.get(), submittedChanges.get() - appliedChanges.get(),
+                restarts.get(), bestScore.get()));
+    }
+
+    private void printReport(PrintStream out, long elapsedNanos) {
+        double elapsedSeconds = elapsedNanos / 1_000_000_000.0;
+        out.println();
+        out.println("   sec  submitted    applied    visible    backlog  restarts   best score");
+        timeline.forEach(out::println);
+        out.println();
+        out.printf("Submitted changes:      %d (%.1f/s)%n", submittedChanges.get(), submittedChanges.get() / elapsedSeconds);
+        out.printf("Applied changes:        %d (%.1f/s)%n", appliedChanges.get(), appliedChanges.get() / elapsedSeconds);
+        out.printf("Visible changes:        %d%n", visibleChanges.get());
+        out.printf("Solver restarts:        %d (%.2f/s)%n", restarts.get(), restarts.get() / elapsedSeconds);
+        out.printf("Visibility latency p50:   %.1f ms%n", toMillis(visibilityLatency.getPercentile(50)));
+        out.printf("Visibility latency p99:   %.1f ms%n", toMillis(visibilityLatency.getPercentile(99)));
+        out.printf("Visibility latency p99.9: %.1f ms%n", toMillis(visibilityLatency.getPercentile(99.9)));
+        out.printf("Visibility latency max:   %.1f ms%n", toMillis(visibilityLatency.getMax()));
+        out.println("Final best score:       " + bestScore.get());
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
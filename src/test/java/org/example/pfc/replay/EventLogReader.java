@@ -0,0 +1,72 @@
+package org.example.pfc.replay;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads an event log with one event per line:
+ * <pre>
+ * timestamp type id [key=value ...]
+ * </pre>
+ * e.g. {@code 2021-03-01T10:15:30Z TASK_CREATED 1001 priority=5 duration=3}. The timestamp is an ISO-8601 instant,
+ * the type one of {@link ReplayEvent.Type}. Blank lines and lines starting with '#' are ignored.
+ * <p>
+ * The returned events are sorted by timestamp, events with the same timestamp keep the order of the file.
+ */
+public class EventLogReader {
+
+    private static final String COMMENT_PREFIX = "#";
+
+    public List<ReplayEvent> read(Path eventLog) {
+        List<ReplayEvent> events = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(eventLog, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                String trimmedLine = line.trim();
+                if (!trimmedLine.isEmpty() && !trimmedLine.startsWith(COMMENT_PREFIX)) {
+                    events.add(parse(trimmedLine, lineNumber));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("An error was produced while reading the event log: " + eventLog, e);
+        }
+        // List.sort is stable.
+        events.sort(Comparator.comparing(ReplayEvent::getTimestamp));
+        return events;
+    }
+
+    static ReplayEvent parse(String line, int lineNumber) {
+        String[] tokens = line.split("\\s+");
+        if (tokens.length < 3) {
+            throw new IllegalArgumentException(String.format("Line %s: expected \"timestamp type id [key=value ...]\" but was \"%s\"", lineNumber, line));
+        }
+        try {
+            Instant timestamp = Instant.parse(tokens[0]);
+            ReplayEvent.Type type = ReplayEvent.Type.valueOf(tokens[1]);
+            Map<String, String> properties = new LinkedHashMap<>();
+            for (int i = 3; i < tokens.length; i++) {
+                int separatorIndex = tokens[i].indexOf('=');
+                if (separatorIndex <= 0) {
+                    throw new IllegalArgumentException(String.format("Line %s: expected a key=value property but was \"%s\"", lineNumber, tokens[i]));
+                }
+                properties.put(tokens[i].substring(0, separatorIndex), tokens[i].substring(separatorIndex + 1));
+            }
+            return new ReplayEvent(timestamp, type, tokens[2], properties);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(String.format("Line %s: invalid timestamp \"%s\"", lineNumber, tokens[0]), e);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package org.example.pfc.replay;
+
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import org.example.pfc.domain.TaskAssigningSolution;
+import org.example.pfc.domain.TaskAssignment;
+import org.example.pfc.domain.User;
+import org.example.pfc.generator.TaskAssigningSolutionGenerator;
+import org.example.pfc.solver.TaskAssigningSolverConfigs;
+import org.optaplanner.core.api.solver.ProblemFactChange;
+import org.optaplanner.core.api.solver.Solver;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.constructionheuristic.ConstructionHeuristicPhaseConfig;
+import org.optaplanner.core.config.localsearch.LocalSearchPhaseConfig;
+import org.optaplanner.core.config.solver.EnvironmentMode;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.config.solver.termination.TerminationConfig;
+import org.optaplanner.persistence.xstream.impl.domain.solution.XStreamSolutionFileIO;
+
+/**
+ * Replays a recorded event log against a starting TaskAssigningSolution.
+ * <pre>
+ * EventLogReplayApp eventLog [startingSolution.xml]
+ * </pre>
+ * When no starting solution is given a generated one is used, see the replay.users and replay.tasks properties.
+ * <p>
+ * The events are grouped in batches of replay.batchMillis of log time. Each batch is submitted to the solver as one
+ * set of problem fact changes, followed by a solve with a fixed number of local search steps in the REPRODUCIBLE
+ * environment mode. The replay speed only controls when a batch is submitted, so the same event log, seed and step
+ * count produce the same solutions for every speed, and two builds can be compared on the same trace by the printed
+ * fingerprint of the final assignments.
+ */
+public class EventLogReplayApp {
+
+    public enum ReplaySpeed {
+        REAL_TIME,
+        ACCELERATED,
+        AS_FAST_AS_POSSIBLE
+    }
+
+    public static final String PROPERTY_PREFIX = "replay.";
+
+    private final ReplaySpeed speed;
+    private final double acceleration;
+    private final long batchMillis;
+    private final int stepCountLimit;
+    private final long seed;
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            throw new IllegalArgumentException("Usage: EventLogReplayApp eventLog [startingSolution.xml]");
+        }
+        EventLogReplayApp app = new EventLogReplayApp(
+                ReplaySpeed.valueOf(System.getProperty(PROPERTY_PREFIX + "speed", ReplaySpeed.AS_FAST_AS_POSSIBLE.name())),
+                Double.parseDouble(System.getProperty(PROPERTY_PREFIX + "acceleration", "10")),
+                Long.getLong(PROPERTY_PREFIX + "batchMillis", 1000),
+                Integer.getInteger(PROPERTY_PREFIX + "stepCountLimit", 1000),
+                Long.getLong(PROPERTY_PREFIX + "seed", 37));
+        TaskAssigningSolution startingSolution;
+        if (args.length > 1) {
+            startingSolution = new XStreamSolutionFileIO<>(TaskAssigningSolution.class).read(Paths.get(args[1]).toFile());
+        } else {
+            startingSolution = new TaskAssigningSolutionGenerator(app.seed)
+                    .generate(Integer.getInteger(PROPERTY_PREFIX + "users", 100), Integer.getInteger(PROPERTY_PREFIX + "tasks", 1000));
+        }
+        app.replay(Paths.get(args[0]), startingSolution, System.out);
+    }
+
+    public EventLogReplayApp(ReplaySpeed speed, double acceleration, long batchMillis, int stepCountLimit, long seed) {
+        this.speed = speed;
+        this.acceleration = acceleration;
+        this.batchMillis = batchMillis;
+        this.stepCountLimit = stepCountLimit;
+        this.seed = seed;
+    }
+
+    public TaskAssigningSolution replay(Path eventLog, TaskAssigningSolution startingSolution, PrintStream out) {
+        List<ReplayEvent> events = new EventLogReader().read(eventLog);
+        ReplayEventConverter converter = new ReplayEventConverter(startingSolution);
+        Solver<TaskAssigningSolution> solver = SolverFactory.<TaskAssigningSolution> create(createReplayConfig()).buildSolver();
+
+        out.printf("Replaying %d events with speed %s%n", events.size(), speed);
+        long solveStart = System.nanoTime();
+        TaskAssigningSolution solution = solver.solve(startingSolution);
+        out.printf("%-24s %7s %7s %7s %9s   %s%n", "log time", "events", "changes", "skipped", "solve ms", "best score");
+        out.printf("%-24s %7d %7d %7d %9d   %s%n", "start", 0, 0, 0, elapsedMillis(solveStart), solution.getScore());
+
+        long replayStart = System.nanoTime();
+        Instant logStart = events.isEmpty() ? Instant.EPOCH : events.get(0).getTimestamp();
+        int index = 0;
+        while (index < events.size()) {
+            Instant batchStart = events.get(index).getTimestamp();
+            Instant batchEnd = batchStart.plusMillis(batchMillis);
+            List<ProblemFactChange<TaskAssigningSolution>> changes = new ArrayList<>();
+            int batchEvents = 0;
+            int skippedEvents = 0;
+            while (index < events.size() && events.get(index).getTimestamp().isBefore(batchEnd)) {
+                List<ProblemFactChange<TaskAssigningSolution>> eventChanges = converter.convert(events.get(index));
+                if (eventChanges.isEmpty()) {
+                    skippedEvents++;
+                }
+                changes.addAll(eventChanges);
+                batchEvents++;
+                index++;
+            }
+            waitUntil(replayStart, Duration.between(logStart, batchStart));
+            solveStart = System.nanoTime();
+            if (!changes.isEmpty()) {
+                // Changes added before solve() are processed at the very beginning of the solving, which keeps the
+                // replay independent of the wall clock.
+                solver.addProblemFactChanges(changes);
+                solution = solver.solve(solution);
+            }
+            out.printf("%-24s %7d %7d %7d %9d   %s%n", batchStart, batchEvents, changes.size(), skippedEvents,
+                    elapsedMillis(solveStart), solution.getScore());
+        }
+        out.println("Final best score:   " + solution.getScore());
+        out.println("Final fingerprint:  " + Long.toHexString(fingerprint(solution)));
+        out.printf("Total replay time:  %d ms%n", elapsedMillis(replayStart));
+        return solution;
+    }
+
+    private SolverConfig createReplayConfig() {
+        SolverConfig config = TaskAssigningSolverConfigs.createBaseConfig();
+        config.setEnvironmentMode(EnvironmentMode.REPRODUCIBLE);
+        config.setRandomSeed(seed);
+        LocalSearchPhaseConfig localSearchPhaseConfig = new LocalSearchPhaseConfig();
+        localSearchPhaseConfig.setTerminationConfig(new TerminationConfig().withStepCountLimit(stepCountLimit));
+        config.setPhaseConfigList(Arrays.asList(new ConstructionHeuristicPhaseConfig(), localSearchPhaseConfig));
+        return config;
+    }
+
+    private void waitUntil(long replayStart, Duration logOffset) {
+        if (speed == ReplaySpeed.AS_FAST_AS_POSSIBLE) {
+            return;
+        }
+        double factor = speed == ReplaySpeed.REAL_TIME ? 1 : acceleration;
+        long targetNanos = replayStart + (long) (logOffset.toNanos() / factor);
+        long waitMillis = (targetNanos - System.nanoTime()) / 1_000_000;
+        if (waitMillis > 0) {
+            try {
+                Thread.sleep(waitMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Replay was interrupted.", e);
+            }
+        }
+    }
+
+    /**
+     * @return a checksum of the chains of all the users, in the order of the user list.
+     */
+    static long fingerprint(TaskAssigningSolution solution) {
+        StringBuilder chains = new StringBuilder();
+        for (User user : solution.getUserList()) {
+            chains.append(user.getId()).append(':');
+            for (TaskAssignment next = user.getNextElement(); next != null; next = next.getNextElement()) {
+                chains.append(next.getId()).append(',');
+            }
+            chains.append(';');
+        }
+        CRC32 crc = new CRC32();
+        crc.update(chains.toString().getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
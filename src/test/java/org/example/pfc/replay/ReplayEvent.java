@@ -0,0 +1,62 @@
+package org.example.pfc.replay;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * A recorded task or user lifecycle event.
+ */
+public class ReplayEvent {
+
+    public enum Type {
+        TASK_CREATED,
+        TASK_UPDATED,
+        TASK_STARTED,
+        TASK_COMPLETED,
+        USER_ADDED,
+        USER_ENABLED,
+        USER_DISABLED
+    }
+
+    private final Instant timestamp;
+    private final Type type;
+    private final String id;
+    private final Map<String, String> properties;
+
+    public ReplayEvent(Instant timestamp, Type type, String id, Map<String, String> properties) {
+        this.timestamp = timestamp;
+        this.type = type;
+        this.id = id;
+        this.properties = Collections.unmodifiableMap(properties);
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return the task id for the TASK_* events, the user id for the USER_* events.
+     */
+    public String getId() {
+        return id;
+    }
+
+    public Map<String, String> getProperties() {
+        return properties;
+    }
+
+    @Override
+    public String toString() {
+        return "ReplayEvent{" +
+                "timestamp=" + timestamp +
+                ", type=" + type +
+                ", id='" + id + '\'' +
+                ", properties=" + properties +
+                '}';
+    }
+}
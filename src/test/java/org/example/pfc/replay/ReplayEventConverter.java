@@ -0,0 +1,157 @@
+package org.example.pfc.replay;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.example.pfc.domain.Task;
+import org.example.pfc.domain.TaskAssigningSolution;
+import org.example.pfc.domain.TaskAssignment;
+import org.example.pfc.domain.User;
+import org.example.pfc.solver.AddTaskProblemFactChange;
+import org.example.pfc.solver.AddUserProblemFactChange;
+import org.example.pfc.solver.DisableUserProblemFactChange;
+import org.example.pfc.solver.PinTasksProblemFactChange;
+import org.example.pfc.solver.RemoveTaskProblemFactChange;
+import org.example.pfc.solver.UpdateTaskProblemFactChange;
+import org.example.pfc.solver.UserPropertyChangeProblemFactChange;
+import org.optaplanner.core.api.solver.ProblemFactChange;
+
+/**
+ * Converts replay events into problem fact changes. The converter tracks the tasks that are part of the solution, so
+ * that events that can't be applied, e.g. the update of a task that was never created, are skipped instead of
+ * failing inside the solver.
+ * <p>
+ * Supported task properties: name, state, priority and duration (in minutes, TASK_CREATED only). A started task is
+ * also pinned, as it can no longer move to another user.
+ * <p>
+ * Supported user properties: groups (comma separated, USER_ADDED only). The converter tracks the users too, so
+ * enabling or disabling an unknown user is skipped.
+ */
+public class ReplayEventConverter {
+
+    public static final String NAME = "name";
+    public static final String STATE = "state";
+    public static final String PRIORITY = "priority";
+    public static final String DURATION = "duration";
+    public static final String GROUPS = User.GROUPS_ATTRIBUTE;
+
+    public static final String STARTED_STATE = "InProgress";
+
+    private final Map<String, Task> tasksById = new HashMap<>();
+    private final Map<String, User> usersById = new HashMap<>();
+
+    public ReplayEventConverter(TaskAssigningSolution startingSolution) {
+        startingSolution.getTaskAssignmentList()
+                .forEach(taskAssignment -> tasksById.put(taskAssignment.getId(), taskAssignment.getTask()));
+        startingSolution.getUserList().forEach(user -> usersById.put(user.getId(), user));
+    }
+
+    /**
+     * @return the changes for the given event, or an empty list if the event must be skipped.
+     */
+    public List<ProblemFactChange<TaskAssigningSolution>> convert(ReplayEvent event) {
+        switch (event.getType()) {
+            case TASK_CREATED:
+                return taskCreated(event);
+            case TASK_UPDATED:
+                return taskUpdated(event, event.getProperties().get(STATE));
+            case TASK_STARTED:
+                return taskStarted(event);
+            case TASK_COMPLETED:
+                return taskCompleted(event);
+            case USER_ADDED:
+                return userAdded(event);
+            case USER_ENABLED:
+                return userEnabledChanged(event, true);
+            case USER_DISABLED:
+                return userEnabledChanged(event, false);
+            default:
+                throw new IllegalArgumentException("Unsupported event type: " + event.getType());
+        }
+    }
+
+    private List<ProblemFactChange<TaskAssigningSolution>> taskCreated(ReplayEvent event) {
+        if (tasksById.containsKey(event.getId())) {
+            return Collections.emptyList();
+        }
+        Task task = Task.newBuilder()
+                .id(event.getId())
+                .name(event.getProperties().get(NAME))
+                .state(event.getProperties().get(STATE))
+                .priority(event.getProperties().get(PRIORITY))
+                .build();
+        TaskAssignment taskAssignment = new TaskAssignment(task);
+        String duration = event.getProperties().get(DURATION);
+        if (duration != null) {
+            taskAssignment.setDurationInMinutes(Integer.parseInt(duration));
+        }
+        tasksById.put(task.getId(), task);
+        return Collections.singletonList(new AddTaskProblemFactChange(taskAssignment));
+    }
+
+    private List<ProblemFactChange<TaskAssigningSolution>> taskUpdated(ReplayEvent event, String state) {
+        Task current = tasksById.get(event.getId());
+        if (current == null) {
+            return Collections.emptyList();
+        }
+        Map<String, String> properties = event.getProperties();
+        Task task = Task.newBuilder()
+                .id(current.getId())
+                .name(properties.getOrDefault(NAME, current.getName()))
+                .state(state != null ? state : current.getState())
+                .priority(properties.getOrDefault(PRIORITY, current.getPriority()))
+                .description(current.getDescription())
+                .referenceName(current.getReferenceName())
+                .processInstanceId(current.getProcessInstanceId())
+                .processId(current.getProcessId())
+                .rootProcessInstanceId(current.getRootProcessInstanceId())
+                .potentialUsers(current.getPotentialUsers())
+                .potentialGroups(current.getPotentialGroups())
+                .build();
+        tasksById.put(task.getId(), task);
+        return Collections.singletonList(new UpdateTaskProblemFactChange(new TaskAssignment(task), task));
+    }
+
+    private List<ProblemFactChange<TaskAssigningSolution>> taskStarted(ReplayEvent event) {
+        List<ProblemFactChange<TaskAssigningSolution>> changes = taskUpdated(event, STARTED_STATE);
+        if (changes.isEmpty()) {
+            return changes;
+        }
+        return Arrays.asList(changes.get(0), new PinTasksProblemFactChange(Collections.singleton(event.getId())));
+    }
+
+    private List<ProblemFactChange<TaskAssigningSolution>> taskCompleted(ReplayEvent event) {
+        Task current = tasksById.remove(event.getId());
+        if (current == null) {
+            return Collections.emptyList();
+        }
+        return Collections.singletonList(new RemoveTaskProblemFactChange(new TaskAssignment(current)));
+    }
+
+    private List<ProblemFactChange<TaskAssigningSolution>> userAdded(ReplayEvent event) {
+        if (usersById.containsKey(event.getId())) {
+            return Collections.emptyList();
+        }
+        Map<String, Object> attributes = new HashMap<>();
+        String groups = event.getProperties().get(GROUPS);
+        if (groups != null) {
+            attributes.put(User.GROUPS_ATTRIBUTE, groups);
+        }
+        User user = new User(event.getId(), true, attributes);
+        usersById.put(user.getId(), user);
+        return Collections.singletonList(new AddUserProblemFactChange(user));
+    }
+
+    private List<ProblemFactChange<TaskAssigningSolution>> userEnabledChanged(ReplayEvent event, boolean enabled) {
+        User current = usersById.get(event.getId());
+        if (current == null || current.isEnabled() == enabled) {
+            return Collections.emptyList();
+        }
+        User user = new User(current.getId(), enabled, current.getAttributes());
+        usersById.put(user.getId(), user);
+        return Collections.singletonList(enabled ? new UserPropertyChangeProblemFactChange(user) : new DisableUserProblemFactChange(user));
+    }
+}
@@ -0,0 +1,39 @@
+package org.example.pfc.shard;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.example.pfc.domain.TaskAssigningSolution;
+import org.example.pfc.solver.TaskAssigningSolverConfigs;
+import org.junit.jupiter.api.Test;
+import org.optaplanner.core.api.solver.SolverFactory;
+
+public class InProcessPlannerNodeTest {
+
+    @Test
+    void testFailedSolverIsSurfaced() throws InterruptedException {
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            InProcessPlannerNode node = new InProcessPlannerNode("node0",
+                    SolverFactory.create(TaskAssigningSolverConfigs.createBaseConfig()), executorService);
+            // a solution without entity collections makes the solver fail when it starts.
+            node.start(new TaskAssigningSolution());
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (node.getFailure() == null && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(node.getFailure()).isNotNull();
+            Throwable thrown = catchThrowable(() -> node.addProblemFactChanges(Collections.emptyList()));
+            assertThat(thrown).isInstanceOf(IllegalStateException.class);
+            assertThat(thrown.getCause()).isSameAs(node.getFailure());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+}
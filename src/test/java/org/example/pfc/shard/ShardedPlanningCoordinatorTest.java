@@ -0,0 +1,324 @@
+package org.example.pfc.shard;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.example.pfc.generator.TaskAssigningFixtures.assign;
+import static org.example.pfc.generator.TaskAssigningFixtures.score;
+import static org.example.pfc.generator.TaskAssigningFixtures.task;
+import static org.example.pfc.generator.TaskAssigningFixtures.taskAssignment;
+import static org.example.pfc.generator.TaskAssigningFixtures.user;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.example.pfc.domain.ModelConstants;
+import org.example.pfc.domain.Task;
+import org.example.pfc.domain.TaskAssigningSolution;
+import org.example.pfc.domain.TaskAssignment;
+import org.example.pfc.domain.User;
+import org.example.pfc.solver.AddTaskProblemFactChange;
+import org.example.pfc.solver.PinTasksProblemFactChange;
+import org.example.pfc.solver.RemoveTaskProblemFactChange;
+import org.example.pfc.solver.UpdateTaskProblemFactChange;
+import org.example.pfc.solver.UserPropertyChangeProblemFactChange;
+import org.junit.jupiter.api.Test;
+import org.optaplanner.core.api.solver.ProblemFactChange;
+
+public class ShardedPlanningCoordinatorTest {
+
+    private final RecordingPlannerNode node0 = new RecordingPlannerNode("node0");
+    private final RecordingPlannerNode node1 = new RecordingPlannerNode("node1");
+    private final ShardedPlanningCoordinator coordinator = new ShardedPlanningCoordinator(Arrays.asList(node0, node1), 2);
+
+    @Test
+    void testStartShardsUsersAndTasks() {
+        User amy = user("Amy", "A");
+        User beth = user("Beth", "B");
+        User chad = user("Chad", "A");
+        TaskAssignment task1 = taskAssignment(task("1", "A"), 5);
+        TaskAssignment task2 = taskAssignment(task("2", "A"), 5);
+        TaskAssignment task3 = taskAssignment(task("3", "B"), 5);
+        TaskAssignment task4 = taskAssignment(Task.newBuilder().id("4").potentialUsers(Collections.singleton("Beth")).build(), 5);
+        TaskAssignment task5 = taskAssignment(task("5"), 5);
+        // Amy -> 1 (pinned) -> 2, only the pinned prefix keeps its user.
+        assign(amy, task1, task2);
+        task1.setPinned(true);
+        coordinator.start(new TaskAssigningSolution(Arrays.asList(ModelConstants.PLANNING_USER, amy, beth, chad),
+                Arrays.asList(task1, task2, task3, task4, task5)));
+
+        // round-robin users, and every shard has its own PLANNING_USER.
+        assertThat(node0.startedSolution.getUserList()).extracting(User::getId)
+                .containsExactly(ModelConstants.PLANNING_USER.getId(), "Amy", "Chad");
+        assertThat(node1.startedSolution.getUserList()).extracting(User::getId)
+                .containsExactly(ModelConstants.PLANNING_USER.getId(), "Beth");
+        assertThat(node0.startedSolution.getUserList()).doesNotContain(amy, ModelConstants.PLANNING_USER);
+
+        // tasks go to a shard with an eligible user, a task without eligible users to the least loaded shard.
+        assertThat(node0.startedSolution.getTaskAssignmentList()).extracting(TaskAssignment::getId).containsExactly("1", "2", "5");
+        assertThat(node1.startedSolution.getTaskAssignmentList()).extracting(TaskAssignment::getId).containsExactly("3", "4");
+        assertThat(coordinator.getShard("4")).isEqualTo(1);
+
+        TaskAssignment pinned = node0.find("1");
+        User shardAmy = node0.startedSolution.getUserList().get(1);
+        assertThat(pinned).isNotSameAs(task1);
+        assertThat(pinned.isPinned()).isTrue();
+        assertThat(pinned.getPreviousElement()).isSameAs(shardAmy);
+        assertThat(pinned.getUser()).isSameAs(shardAmy);
+        assertThat(shardAmy.getNextElement()).isSameAs(pinned);
+        assertThat(pinned.getStartTimeInMinutes()).isEqualTo(0);
+        assertThat(pinned.getEndTimeInMinutes()).isEqualTo(5);
+        TaskAssignment unpinned = node0.find("2");
+        assertThat(unpinned.getPreviousElement()).isNull();
+        assertThat(unpinned.getUser()).isNull();
+        assertThat(unpinned.getDurationInMinutes()).isEqualTo(5);
+    }
+
+    @Test
+    void testStartKeepsEveryPinnedTaskInChainOrder() {
+        User amy = user("Amy", "A");
+        TaskAssignment task1 = taskAssignment(task("1", "A"), 5);
+        TaskAssignment task2 = taskAssignment(task("2", "A"), 5);
+        TaskAssignment task3 = taskAssignment(task("3", "A"), 5);
+        // Amy -> 1 (pinned) -> 2 -> 3 (pinned), e.g. a loaded solution where the pinned tasks don't form a prefix.
+        assign(amy, task1, task2, task3);
+        task1.setPinned(true);
+        task3.setPinned(true);
+        coordinator.start(new TaskAssigningSolution(Arrays.asList(ModelConstants.PLANNING_USER, amy, user("Beth", "B")),
+                Arrays.asList(task1, task2, task3)));
+
+        User shardAmy = node0.user("Amy");
+        TaskAssignment pinned1 = node0.find("1");
+        TaskAssignment pinned3 = node0.find("3");
+        assertThat(shardAmy.getNextElement()).isSameAs(pinned1);
+        assertThat(pinned1.getNextElement()).isSameAs(pinned3);
+        assertThat(pinned3.getPreviousElement()).isSameAs(pinned1);
+        assertThat(pinned3.getNextElement()).isNull();
+        assertThat(pinned3.getUser()).isSameAs(shardAmy);
+        assertThat(pinned3.isPinned()).isTrue();
+        assertThat(pinned3.getStartTimeInMinutes()).isEqualTo(5);
+        assertThat(pinned3.getEndTimeInMinutes()).isEqualTo(10);
+        assertThat(node0.find("2").getUser()).isNull();
+        assertThat(node0.find("2").getPreviousElement()).isNull();
+    }
+
+    @Test
+    void testTaskChangesAreRoutedToTheOwningShard() {
+        startWithAmyAndBeth(task("1", "A"), task("2", "B"), task("3", "A"));
+
+        TaskAssignment added = taskAssignment(task("4", "B"), 1);
+        coordinator.addTask(added);
+        assertThat(coordinator.getShard("4")).isEqualTo(1);
+        assertThat(node1.changes).hasSize(1);
+        assertThat(((AddTaskProblemFactChange) node1.changes.get(0)).getTaskAssignment()).isSameAs(added);
+        assertThatThrownBy(() -> coordinator.addTask(taskAssignment(task("4", "B"), 1))).isInstanceOf(IllegalStateException.class);
+
+        Task updated = task("2", "B");
+        coordinator.updateTask(updated);
+        assertThat(node1.changes).hasSize(2);
+        assertThat(((UpdateTaskProblemFactChange) node1.changes.get(1)).getTask()).isSameAs(updated);
+
+        coordinator.removeTask("3");
+        assertThat(node0.changes).hasSize(1);
+        assertThat(((RemoveTaskProblemFactChange) node0.changes.get(0)).getTaskAssignment().getId()).isEqualTo("3");
+        assertThatThrownBy(() -> coordinator.getShard("3")).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> coordinator.removeTask("3")).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void testUpdateMovesTaskWhenItsShardIsNoLongerEligible() {
+        startWithAmyAndBeth(task("1", "A"));
+        assertThat(coordinator.getShard("1")).isEqualTo(0);
+
+        coordinator.updateTask(task("1", "B"));
+        assertThat(coordinator.getShard("1")).isEqualTo(1);
+        assertThat(node0.changes).hasSize(1);
+        assertThat(((RemoveTaskProblemFactChange) node0.changes.get(0)).getTaskAssignment().getId()).isEqualTo("1");
+        assertThat(node1.changes).hasSize(1);
+        TaskAssignment moved = ((AddTaskProblemFactChange) node1.changes.get(0)).getTaskAssignment();
+        assertThat(moved.getTask().getPotentialGroups()).containsExactly("B");
+        // the duration is kept from the task as it was started.
+        assertThat(moved.getDurationInMinutes()).isEqualTo(10);
+    }
+
+    @Test
+    void testDisabledUserIsNoLongerEligible() {
+        startWithAmyAndBeth(task("1", "A"));
+
+        coordinator.updateUser(new User("Amy", false, Collections.singletonMap(User.GROUPS_ATTRIBUTE, "A")));
+        assertThat(node0.changes).hasSize(1);
+        assertThat(((UserPropertyChangeProblemFactChange) node0.changes.get(0)).getUser().isEnabled()).isFalse();
+
+        // no enabled user is eligible anymore, so the task goes to the least loaded shard.
+        coordinator.addTask(taskAssignment(task("2", "A"), 1));
+        assertThat(coordinator.getShard("2")).isEqualTo(1);
+    }
+
+    @Test
+    void testRebalance() {
+        startWithAmyAndBeth(task("1", "A", "B"), task("2", "A", "B"), task("3", "A", "B"), task("4", "A", "B"));
+        assertThat(Arrays.asList("1", "2", "3", "4")).extracting(coordinator::getShard).containsExactly(0, 1, 0, 1);
+        // shard 0: Amy -> 1 -> 3, shard 1: PLANNING_USER -> 2 and Beth -> 4.
+        assign(node0.user("Amy"), node0.find("1"), node0.find("3"));
+        assign(node1.user(ModelConstants.PLANNING_USER.getId()), node1.find("2"));
+        assign(node1.user("Beth"), node1.find("4"));
+
+        coordinator.rebalance();
+
+        // the task on the PLANNING_USER moves first, then the first movable task of the busiest shard.
+        assertThat(coordinator.getShard("2")).isEqualTo(0);
+        assertThat(coordinator.getShard("1")).isEqualTo(1);
+        assertThat(coordinator.getShard("3")).isEqualTo(0);
+        assertThat(node0.changes).hasSize(2);
+        assertThat(((AddTaskProblemFactChange) node0.changes.get(0)).getTaskAssignment().getId()).isEqualTo("2");
+        assertThat(((RemoveTaskProblemFactChange) node0.changes.get(1)).getTaskAssignment().getId()).isEqualTo("1");
+        assertThat(node1.changes).hasSize(2);
+        assertThat(((RemoveTaskProblemFactChange) node1.changes.get(0)).getTaskAssignment().getId()).isEqualTo("2");
+        TaskAssignment moved = ((AddTaskProblemFactChange) node1.changes.get(1)).getTaskAssignment();
+        assertThat(moved.getId()).isEqualTo("1");
+        assertThat(moved.getUser()).isNull();
+        assertThat(moved.getDurationInMinutes()).isEqualTo(10);
+    }
+
+    @Test
+    void testRebalanceMovesTheLatestTask() {
+        startWithAmyAndBeth(task("1", "A"), task("2", "A", "B"));
+        // shard 1: PLANNING_USER -> 2, the best solution still has the task as it was started.
+        assign(node1.user(ModelConstants.PLANNING_USER.getId()), node1.find("2"));
+        Task updated = Task.newBuilder().id("2").name("updated").potentialGroups(new HashSet<>(Arrays.asList("A", "B"))).build();
+        coordinator.updateTask(updated);
+        assertThat(node1.changes).hasSize(1);
+
+        coordinator.rebalance();
+        assertThat(coordinator.getShard("2")).isEqualTo(0);
+        TaskAssignment moved = ((AddTaskProblemFactChange) node0.changes.get(0)).getTaskAssignment();
+        assertThat(moved.getTask()).isSameAs(updated);
+        assertThat(moved.getDurationInMinutes()).isEqualTo(10);
+        assertThat(moved.getUser()).isNull();
+    }
+
+    @Test
+    void testPinnedTasksAreNotMoved() {
+        startWithAmyAndBeth(task("1", "A", "B"), task("2", "A", "B"), task("3", "A", "B"), task("4", "A", "B"));
+        assign(node0.user("Amy"), node0.find("1"), node0.find("3"));
+        assign(node1.user(ModelConstants.PLANNING_USER.getId()), node1.find("2"));
+        assign(node1.user("Beth"), node1.find("4"));
+        // the pin of task 1 is not yet visible in the best solution of shard 0.
+        coordinator.submitTaskChange("1", new PinTasksProblemFactChange(Collections.singleton("1")));
+        assertThat(node0.changes).hasSize(1);
+
+        coordinator.rebalance();
+        assertThat(coordinator.getShard("2")).isEqualTo(0);
+        assertThat(coordinator.getShard("1")).isEqualTo(0);
+        assertThat(coordinator.getShard("3")).isEqualTo(1);
+
+        // a pinned task stays with its user even when the users of its shard are no longer eligible.
+        coordinator.updateTask(task("1", "B"));
+        assertThat(coordinator.getShard("1")).isEqualTo(0);
+        assertThat(node0.changes.get(node0.changes.size() - 1)).isInstanceOf(UpdateTaskProblemFactChange.class);
+    }
+
+    @Test
+    void testRebalanceKeepsPinnedTasks() {
+        startWithAmyAndBeth(task("1", "A", "B"), task("2", "A", "B"), task("3", "A", "B"));
+        // shard 0 is busier, but all its tasks are pinned.
+        assign(node0.user("Amy"), node0.find("1"), node0.find("3"));
+        node0.find("1").setPinned(true);
+        node0.find("3").setPinned(true);
+        assign(node1.user("Beth"), node1.find("2"));
+
+        coordinator.rebalance();
+        assertThat(node0.changes).isEmpty();
+        assertThat(node1.changes).isEmpty();
+    }
+
+    @Test
+    void testGlobalView() {
+        startWithAmyAndBeth(task("1", "A"), task("2", "B"));
+        node0.startedSolution.setScore(score(0, -1, -2));
+        node1.startedSolution.setScore(score(-1, 0, -3));
+
+        TaskAssigningSolution globalView = coordinator.getGlobalView();
+        assertThat(globalView.getUserList()).extracting(User::getId)
+                .containsExactly(ModelConstants.PLANNING_USER.getId(), "Amy", "Beth");
+        assertThat(globalView.getTaskAssignmentList()).containsExactly(node0.find("1"), node1.find("2"));
+        assertThat(globalView.getScore()).isEqualTo(score(-1, -1, -5));
+        assertThat(globalView.getUserGroupIndex().getUserOrdinal("Beth")).isEqualTo(1);
+    }
+
+    @Test
+    void testStop() {
+        startWithAmyAndBeth(task("1", "A"));
+        coordinator.stop();
+        assertThat(node0.stopped).isTrue();
+        assertThat(node1.stopped).isTrue();
+    }
+
+    /**
+     * Amy with group A goes to shard 0, Beth with group B to shard 1. Every task has a duration of 10 minutes.
+     */
+    private void startWithAmyAndBeth(Task... tasks) {
+        List<TaskAssignment> taskAssignmentList = new ArrayList<>();
+        for (Task task : tasks) {
+            taskAssignmentList.add(taskAssignment(task, 10));
+        }
+        List<User> userList = Arrays.asList(ModelConstants.PLANNING_USER, user("Amy", "A"), user("Beth", "B"));
+        coordinator.start(new TaskAssigningSolution(userList, taskAssignmentList));
+    }
+
+    /**
+     * Records the changes instead of solving, its best solution is the started solution.
+     */
+    private static class RecordingPlannerNode implements PlannerNode {
+
+        private final String id;
+        private final List<ProblemFactChange<TaskAssigningSolution>> changes = new ArrayList<>();
+        private TaskAssigningSolution startedSolution;
+        private boolean stopped;
+
+        private RecordingPlannerNode(String id) {
+            this.id = id;
+        }
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public void start(TaskAssigningSolution solution) {
+            startedSolution = solution;
+        }
+
+        @Override
+        public void addProblemFactChanges(List<ProblemFactChange<TaskAssigningSolution>> problemFactChanges) {
+            changes.addAll(problemFactChanges);
+        }
+
+        @Override
+        public TaskAssigningSolution getBestSolution() {
+            return startedSolution;
+        }
+
+        @Override
+        public void stop() {
+            stopped = true;
+        }
+
+        private TaskAssignment find(String taskId) {
+            return startedSolution.getTaskAssignmentList().stream()
+                    .filter(taskAssignment -> taskId.equals(taskAssignment.getId()))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("Task not found: " + taskId));
+        }
+
+        private User user(String userId) {
+            return startedSolution.getUserList().stream()
+                    .filter(user -> userId.equals(user.getId()))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("User not found: " + userId));
+        }
+    }
+}
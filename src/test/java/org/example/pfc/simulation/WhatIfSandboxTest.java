@@ -0,0 +1,77 @@
+package org.example.pfc.simulation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.example.pfc.generator.TaskAssigningFixtures.assign;
+import static org.example.pfc.generator.TaskAssigningFixtures.score;
+import static org.example.pfc.generator.TaskAssigningFixtures.taskAssignment;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.example.pfc.domain.ModelConstants;
+import org.example.pfc.domain.TaskAssigningSolution;
+import org.example.pfc.domain.TaskAssignment;
+import org.example.pfc.domain.User;
+import org.example.pfc.solver.AddTaskProblemFactChange;
+import org.example.pfc.solver.DisableUserProblemFactChange;
+import org.junit.jupiter.api.Test;
+
+public class WhatIfSandboxTest {
+
+    private static final long TIME_LIMIT_MILLIS = 1000;
+
+    @Test
+    void testConcurrentSimulations() throws Exception {
+        User planningUser = new User(ModelConstants.PLANNING_USER.getId(), true);
+        User amy = new User("Amy", true);
+        User beth = new User("Beth", true);
+        TaskAssignment task1 = taskAssignment("1", 2, "Amy");
+        TaskAssignment task2 = taskAssignment("2", 3, "Beth");
+        assign(amy, task1);
+        assign(beth, task2);
+        // the optimal solution, every task is on its only potential owner.
+        TaskAssigningSolution bestSolution = new TaskAssigningSolution(Arrays.asList(planningUser, amy, beth),
+                Arrays.asList(task1, task2));
+        bestSolution.setScore(score(0, 0, -(2 * 2 + 3 * 3)));
+
+        WhatIfResult disableAmyResult;
+        WhatIfResult addTaskResult;
+        try (WhatIfSandbox sandbox = new WhatIfSandbox(TIME_LIMIT_MILLIS, 2)) {
+            CompletableFuture<WhatIfResult> disableAmy = sandbox.simulate(bestSolution,
+                    Collections.singletonList(new DisableUserProblemFactChange(new User("Amy"))));
+            CompletableFuture<WhatIfResult> addTask = sandbox.simulate(bestSolution,
+                    Collections.singletonList(new AddTaskProblemFactChange(taskAssignment("3", 4, "Beth"))));
+            disableAmyResult = disableAmy.get();
+            addTaskResult = addTask.get();
+        }
+
+        // task 1 has no other potential owner, so it goes to the PLANNING_USER, and nothing else changes.
+        assertThat(disableAmyResult.getBaseScore()).isEqualTo(bestSolution.getScore());
+        assertThat(disableAmyResult.getScoreDiff()).isEqualTo(score(0, -1, 2 * 2));
+        List<TaskEtaChange> disableAmyChanges = disableAmyResult.getEtaChanges();
+        assertThat(disableAmyChanges).extracting(TaskEtaChange::getTaskId).containsExactly("1");
+        assertThat(disableAmyChanges.get(0).getBaseUserId()).isEqualTo("Amy");
+        assertThat(disableAmyChanges.get(0).getSimulatedUserId()).isEqualTo(planningUser.getId());
+        assertThat(disableAmyChanges.get(0).getBaseEndTimeInMinutes()).isEqualTo(2);
+        assertThat(disableAmyChanges.get(0).getSimulatedEndTimeInMinutes()).isEqualTo(2);
+
+        // the new task goes to Beth, its only potential owner, in any position of her chain.
+        assertThat(addTaskResult.getScoreDiff()).isEqualTo(score(0, 0, 3 * 3 - 7 * 7));
+        assertThat(addTaskResult.getEtaChanges())
+                .filteredOn(etaChange -> "3".equals(etaChange.getTaskId()))
+                .extracting(TaskEtaChange::getBaseUserId, TaskEtaChange::getSimulatedUserId)
+                .containsExactly(tuple(null, "Beth"));
+        assertThat(addTaskResult.getEtaChanges()).extracting(TaskEtaChange::getTaskId).doesNotContain("1");
+
+        // the simulations planned on their own clones.
+        assertThat(amy.isEnabled()).isTrue();
+        assertThat(bestSolution.getTaskAssignmentList()).containsExactly(task1, task2);
+        assertThat(task1.getUser()).isSameAs(amy);
+        assertThat(amy.getNextElement()).isSameAs(task1);
+        assertThat(beth.getNextElement()).isSameAs(task2);
+        assertThat(task2.getNextElement()).isNull();
+    }
+}
@@ -0,0 +1,155 @@
+package org.example.pfc.solver;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.example.pfc.domain.TaskAssigningSolution;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.optaplanner.core.api.solver.ProblemFactChange;
+
+public class PendingChangeBatchTest {
+
+    private static final long MIN_QUIET_WINDOW_MILLIS = 20;
+    private static final long QUIET_WINDOW_MILLIS = 200;
+    private static final long MAX_CHANGE_DELAY_MILLIS = 1000;
+
+    private PendingChangeBatch batch;
+
+    @BeforeEach
+    void setUp() {
+        batch = new PendingChangeBatch(ChangeAwareRestartPolicy.newBuilder()
+                .minQuietWindowMillis(MIN_QUIET_WINDOW_MILLIS)
+                .quietWindowMillis(QUIET_WINDOW_MILLIS)
+                .maxChangeDelayMillis(MAX_CHANGE_DELAY_MILLIS)
+                .build());
+    }
+
+    @Test
+    void testEmptyBatchIsNeverDue() {
+        batch.setSolverIdle(true);
+        assertThat(batch.isDue(millis(0))).isFalse();
+        assertThat(batch.isDue(millis(10 * MAX_CHANGE_DELAY_MILLIS))).isFalse();
+        assertThat(batch.takeIfDue(millis(10 * MAX_CHANGE_DELAY_MILLIS))).isNull();
+    }
+
+    @Test
+    void testQuietWindow() {
+        batch.add(change(), millis(0));
+        batch.add(change(), millis(100));
+        assertThat(batch.isDue(millis(299))).isFalse();
+        // the quiet window starts again with every change.
+        assertThat(batch.isDue(millis(300))).isTrue();
+
+        List<ProblemFactChange<TaskAssigningSolution>> changes = batch.takeIfDue(millis(300));
+        assertThat(changes).hasSize(2);
+        assertThat(batch.size()).isZero();
+        assertThat(batch.isDue(millis(1000))).isFalse();
+    }
+
+    @Test
+    void testMaxChangeDelay() {
+        // a change every 150 ms never leaves a quiet window of 200 ms.
+        for (long time = 0; time < MAX_CHANGE_DELAY_MILLIS; time += 150) {
+            batch.add(change(), millis(time));
+            assertThat(batch.isDue(millis(Math.min(time + 149, MAX_CHANGE_DELAY_MILLIS - 1)))).isFalse();
+        }
+        assertThat(batch.isDue(millis(MAX_CHANGE_DELAY_MILLIS - 1))).isFalse();
+        assertThat(batch.isDue(millis(MAX_CHANGE_DELAY_MILLIS))).isTrue();
+        assertThat(batch.takeIfDue(millis(MAX_CHANGE_DELAY_MILLIS))).hasSize(7);
+
+        // the max change delay counts from the oldest change of the next batch.
+        batch.add(change(), millis(MAX_CHANGE_DELAY_MILLIS + 50));
+        assertThat(batch.isDue(millis(MAX_CHANGE_DELAY_MILLIS + 100))).isFalse();
+    }
+
+    @Test
+    void testIdleSolverSubmitsImmediately() {
+        batch.setSolverIdle(true);
+        batch.add(change(), millis(0));
+        assertThat(batch.isDue(millis(0))).isTrue();
+        assertThat(batch.takeIfDue(millis(0))).hasSize(1);
+
+        // the submitted batch restarts the solver, so the next change waits for the quiet window again.
+        assertThat(batch.isSolverIdle()).isFalse();
+        batch.add(change(), millis(500));
+        assertThat(batch.isDue(millis(500 + QUIET_WINDOW_MILLIS - 1))).isFalse();
+        assertThat(batch.isDue(millis(500 + QUIET_WINDOW_MILLIS))).isTrue();
+    }
+
+    @Test
+    void testFastBurstShortensTheQuietWindow() {
+        // a change every 30 ms, the end of the burst is detected after twice the gap.
+        for (long time = 0; time <= 300; time += 30) {
+            batch.add(change(), millis(time));
+        }
+        assertThat(batch.getEffectiveQuietWindowNanos()).isEqualTo(millis(60));
+        assertThat(batch.isDue(millis(359))).isFalse();
+        assertThat(batch.isDue(millis(360))).isTrue();
+        assertThat(batch.takeIfDue(millis(360))).hasSize(11);
+    }
+
+    @Test
+    void testMinQuietWindow() {
+        for (long time = 0; time <= 10; time++) {
+            batch.add(change(), millis(time));
+        }
+        assertThat(batch.getEffectiveQuietWindowNanos()).isEqualTo(millis(MIN_QUIET_WINDOW_MILLIS));
+        assertThat(batch.isDue(millis(10 + MIN_QUIET_WINDOW_MILLIS - 1))).isFalse();
+        assertThat(batch.isDue(millis(10 + MIN_QUIET_WINDOW_MILLIS))).isTrue();
+    }
+
+    @Test
+    void testSparseChangesWaitForTheQuietWindow() {
+        assertThat(batch.getEffectiveQuietWindowNanos()).isEqualTo(millis(QUIET_WINDOW_MILLIS));
+        batch.add(change(), millis(0));
+        assertThat(batch.takeAll()).hasSize(1);
+
+        // the gap since the previous batch counts, so the window doesn't stay short after a burst.
+        batch.add(change(), millis(5000));
+        assertThat(batch.getEffectiveQuietWindowNanos()).isEqualTo(millis(QUIET_WINDOW_MILLIS));
+        assertThat(batch.isDue(millis(5000 + QUIET_WINDOW_MILLIS - 1))).isFalse();
+        assertThat(batch.isDue(millis(5000 + QUIET_WINDOW_MILLIS))).isTrue();
+    }
+
+    @Test
+    void testQuietWindowLowerThanMinIsRejected() {
+        assertThatIllegalArgumentException().isThrownBy(() -> ChangeAwareRestartPolicy.newBuilder()
+                .minQuietWindowMillis(100)
+                .quietWindowMillis(50)
+                .build());
+    }
+
+    @Test
+    void testBusySolverWaitsForTheQuietWindow() {
+        batch.setSolverIdle(true);
+        batch.setSolverIdle(false);
+        batch.add(change(), millis(0));
+        assertThat(batch.isDue(millis(QUIET_WINDOW_MILLIS - 1))).isFalse();
+    }
+
+    @Test
+    void testTakeAll() {
+        batch.setSolverIdle(true);
+        assertThat(batch.takeAll()).isEmpty();
+        // taking no changes doesn't restart the solver.
+        assertThat(batch.isSolverIdle()).isTrue();
+
+        batch.add(change(), millis(0));
+        batch.add(change(), millis(0));
+        assertThat(batch.takeAll()).hasSize(2);
+        assertThat(batch.isSolverIdle()).isFalse();
+    }
+
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    private static ProblemFactChange<TaskAssigningSolution> change() {
+        return scoreDirector -> {
+        };
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.pfc.solver;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.example.pfc.generator.TaskAssigningFixtures.assign;
+import static org.example.pfc.generator.TaskAssigningFixtures.taskAssignment;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.example.pfc.domain.ModelConstants;
+import org.example.pfc.domain.TaskAssigningSolution;
+import org.example.pfc.domain.TaskAssignment;
+import org.example.pfc.domain.User;
+import org.junit.jupiter.api.Test;
+import org.optaplanner.core.api.score.buildin.bendablelong.BendableLongScore;
+import org.optaplanner.core.api.score.constraint.ConstraintMatch;
+import org.optaplanner.core.api.score.constraint.Indictment;
+import org.optaplanner.core.api.solver.SolverFactory;
+
+public class ScoreExplainerTest {
+
+    @Test
+    void testTaskOnPlanningUserIsIndicted() throws Exception {
+        User planningUser = new User(ModelConstants.PLANNING_USER.getId(), true);
+        User amy = new User("Amy", true);
+        TaskAssignment onPlanningUser = taskAssignment("1", 1, "Amy");
+        TaskAssignment onAmy = taskAssignment("2", 1, "Amy");
+        assign(planningUser, onPlanningUser);
+        assign(amy, onAmy);
+        TaskAssigningSolution bestSolution = new TaskAssigningSolution(Arrays.asList(planningUser, amy),
+                Arrays.asList(onPlanningUser, onAmy));
+
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            ScoreExplainer explainer = new ScoreExplainer(SolverFactory.create(TaskAssigningSolverConfigs.createBaseConfig()),
+                    executorService);
+            explainer.setBestSolution(bestSolution);
+
+            Map<String, Indictment<BendableLongScore>> indictments = explainer.explainTasks(Arrays.asList("1", "2")).get();
+            assertThat(indictments).containsKey("1");
+            assertThat(indictments.get("1").getConstraintMatchSet())
+                    .extracting(ConstraintMatch::getConstraintName)
+                    .contains("PlanningUser assignment")
+                    .doesNotContain("Required potential owner");
+            // the explained copy shares the entities of the published best solution.
+            assertThat(indictments.get("1").getJustification()).isSameAs(onPlanningUser);
+        } finally {
+            executorService.shutdownNow();
+        }
+        // the published best solution is left untouched, the score was written to the copy.
+        assertThat(bestSolution.getScore()).isNull();
+        assertThat(bestSolution.getTaskAssignmentList()).containsExactly(onPlanningUser, onAmy);
+    }
+}
@@ -0,0 +1,50 @@
+package org.example.pfc.solver;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.example.pfc.domain.TaskAssigningSolution;
+import org.junit.jupiter.api.Test;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.solver.SolverConfig;
+
+public class SolverFactoryCacheTest {
+
+    private final SolverFactoryCache solverFactoryCache = new SolverFactoryCache();
+    private final AtomicInteger createdConfigs = new AtomicInteger();
+    private final Supplier<SolverConfig> configSupplier = () -> {
+        createdConfigs.incrementAndGet();
+        return TaskAssigningSolverConfigs.createBaseConfig();
+    };
+
+    @Test
+    void testFactoryIsCreatedOncePerKey() {
+        SolverFactory<TaskAssigningSolution> tenantA = solverFactoryCache.getSolverFactory("tenantA", configSupplier);
+        assertThat(solverFactoryCache.getSolverFactory("tenantA", configSupplier)).isSameAs(tenantA);
+        assertThat(createdConfigs).hasValue(1);
+
+        SolverFactory<TaskAssigningSolution> tenantB = solverFactoryCache.getSolverFactory("tenantB", configSupplier);
+        assertThat(tenantB).isNotSameAs(tenantA);
+        assertThat(createdConfigs).hasValue(2);
+    }
+
+    @Test
+    void testEvict() {
+        SolverFactory<TaskAssigningSolution> tenantA = solverFactoryCache.getSolverFactory("tenantA", configSupplier);
+        solverFactoryCache.evict("tenantA");
+        assertThat(solverFactoryCache.getSolverFactory("tenantA", configSupplier)).isNotSameAs(tenantA);
+        assertThat(createdConfigs).hasValue(2);
+    }
+
+    @Test
+    void testBaseSolverFactory() {
+        SolverFactory<TaskAssigningSolution> base = solverFactoryCache.getBaseSolverFactory();
+        assertThat(solverFactoryCache.getBaseSolverFactory()).isSameAs(base);
+        // the base factory is cached under its key, the given supplier is not called.
+        assertThat(solverFactoryCache.getSolverFactory(SolverFactoryCache.BASE_CONFIG_KEY, configSupplier)).isSameAs(base);
+        assertThat(createdConfigs).hasValue(0);
+        assertThat(base.buildSolver()).isNotNull();
+    }
+}
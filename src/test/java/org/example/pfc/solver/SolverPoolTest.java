@@ -0,0 +1,74 @@
+package org.example.pfc.solver;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+import java.util.concurrent.TimeUnit;
+
+import org.example.pfc.domain.TaskAssigningSolution;
+import org.example.pfc.domain.TaskAssignment;
+import org.example.pfc.generator.TaskAssigningSolutionGenerator;
+import org.junit.jupiter.api.Test;
+import org.optaplanner.core.api.solver.Solver;
+import org.optaplanner.core.api.solver.SolverFactory;
+
+public class SolverPoolTest {
+
+    private static final long WARM_UP_MILLIS = 200;
+    private static final long AWAIT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private final SolverFactory<TaskAssigningSolution> solverFactory = new SolverFactoryCache().getBaseSolverFactory();
+    private final TaskAssigningSolution warmUpProblem = new TaskAssigningSolutionGenerator(37).generate(2, 10);
+
+    @Test
+    void testWarmAndColdAcquisitions() throws InterruptedException {
+        try (SolverPool solverPool = new SolverPool(solverFactory, 1, warmUpProblem, WARM_UP_MILLIS)) {
+            awaitAvailable(solverPool);
+
+            Solver<TaskAssigningSolution> warmSolver = solverPool.acquire();
+            assertThat(warmSolver).isNotNull();
+            assertThat(solverPool.getWarmAcquisitions()).isEqualTo(1);
+            assertThat(solverPool.getColdAcquisitions()).isZero();
+
+            // the replacement is still warming up, so the next solver is built on the calling thread.
+            Solver<TaskAssigningSolution> coldSolver = solverPool.acquire();
+            assertThat(coldSolver).isNotNull().isNotSameAs(warmSolver);
+            assertThat(solverPool.getWarmAcquisitions()).isEqualTo(1);
+            assertThat(solverPool.getColdAcquisitions()).isEqualTo(1);
+
+            // a replacement is built for the warm solver that was handed out, but not for the cold one.
+            awaitAvailable(solverPool);
+            assertThat(solverPool.getAvailableCount()).isEqualTo(1);
+            Solver<TaskAssigningSolution> replacement = solverPool.acquire();
+            assertThat(replacement).isNotSameAs(warmSolver).isNotSameAs(coldSolver);
+            assertThat(solverPool.getWarmAcquisitions()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void testWarmUpProblemIsNotModified() throws InterruptedException {
+        try (SolverPool solverPool = new SolverPool(solverFactory, 2, warmUpProblem, WARM_UP_MILLIS)) {
+            awaitAvailable(solverPool);
+            solverPool.acquire();
+            awaitAvailable(solverPool);
+        }
+        assertThat(warmUpProblem.getScore()).isNull();
+        assertThat(warmUpProblem.getTaskAssignmentList()).extracting(TaskAssignment::getUser).containsOnlyNulls();
+    }
+
+    @Test
+    void testAcquireAfterClose() {
+        SolverPool solverPool = new SolverPool(solverFactory, 1, warmUpProblem, WARM_UP_MILLIS);
+        solverPool.close();
+        assertThatIllegalStateException().isThrownBy(solverPool::acquire);
+        assertThat(solverPool.getAvailableCount()).isZero();
+    }
+
+    private static void awaitAvailable(SolverPool solverPool) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + AWAIT_MILLIS;
+        while (solverPool.getAvailableCount() == 0) {
+            assertThat(System.currentTimeMillis()).as("no warm solver became available").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+}